@@ -1,50 +1,108 @@
 package com.example.eventservice.controller;
 
-import com.example.eventservice.model.Event;
+import com.example.eventservice.dto.EventPage;
+import com.example.eventservice.dto.EventSummary;
+import com.example.eventservice.dto.SeatChangeRequest;
+import com.example.eventservice.dto.SeatChangeResult;
+import com.example.eventservice.dto.Suggestion;
+import com.example.eventservice.service.EventDetailCache;
 import com.example.eventservice.service.EventService;
+import com.example.eventservice.service.EventSuggestionIndex;
+import com.example.eventservice.service.OrganizerStatsService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/events")
 @CrossOrigin(origins = "http://localhost:4200")
 public class EventController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_SUGGESTIONS = 8;
+    private static final int MAX_SUGGESTIONS = EventSuggestionIndex.MAX_LIMIT;
+
     private final EventService eventService;
+    private final OrganizerStatsService organizerStatsService;
+    private final EventSuggestionIndex suggestionIndex;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService,
+                           OrganizerStatsService organizerStatsService,
+                           EventSuggestionIndex suggestionIndex) {
         this.eventService = eventService;
+        this.organizerStatsService = organizerStatsService;
+        this.suggestionIndex = suggestionIndex;
     }
 
-    // PUBLIC GET (filters)
+    // PUBLIC GET (filters, keyset paginated: pass back X-Next-Cursor as ?cursor=)
     @GetMapping
-    public ResponseEntity<List<Event>> getEvents(
+    public ResponseEntity<List<EventSummary>> getEvents(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String minDate,
             @RequestParam(required = false) String maxDate,
-            @RequestParam(required = false) Double maxPrice
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        EventPage<EventSummary> page;
+        try {
+            page = eventService.search(keyword, category, location, minDate, maxDate, maxPrice, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    // PUBLIC keyword search ranked by relevance
+    @GetMapping("/search")
+    public ResponseEntity<List<EventSummary>> searchByRelevance(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(eventService.searchByRelevance(query, size));
+    }
+
+    // PUBLIC autocomplete for the search box
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(required = false) Integer limit
     ) {
-        return ResponseEntity.ok(eventService.search(keyword, category, location, minDate, maxDate, maxPrice));
+        int size = limit == null || limit <= 0 ? DEFAULT_SUGGESTIONS : Math.min(limit, MAX_SUGGESTIONS);
+        return ResponseEntity.ok(suggestionIndex.suggest(prefix, size));
     }
 
+    // Served from the detail cache; If-None-Match / If-Modified-Since are answered with 304 by Spring
     @GetMapping("/{id}")
-    public ResponseEntity<Event> getById(@PathVariable Long id) {
-        return eventService.getById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getById(@PathVariable Long id) {
+        return eventService.getDetail(id)
+                .map(EventController::detailResponse)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    private static ResponseEntity<byte[]> detailResponse(EventDetailCache.Entry detail) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(detail.getEtag())
+                .lastModified(detail.getLastModified())
+                .body(detail.getBody());
+    }
+
     // ORGANIZER
     @GetMapping("/organizer/{organizerId}")
-    public ResponseEntity<List<Event>> getEventsByOrganizer(
+    public ResponseEntity<List<EventSummary>> getEventsByOrganizer(
             @PathVariable Long organizerId,
             @RequestHeader("X-User-Id") Long userId,
             @RequestHeader("X-User-Role") String userRole
@@ -57,57 +115,35 @@ public class EventController {
 
     @GetMapping("/organizer/{organizerId}/stats")
     public ResponseEntity<Map<String, Object>> getOrganizerStats(@PathVariable Long organizerId) {
-        List<Event> events = eventService.getEventsByOrganizer(organizerId);
-
-        long totalEvents = events.size();
-        long upcomingEvents = events.stream()
-                .filter(e -> e.getDate() != null && e.getDate().isAfter(LocalDateTime.now()))
-                .count();
-        long pastEvents = totalEvents - upcomingEvents;
-
-        int totalParticipants = events.stream()
-                .mapToInt(e -> e.getCurrentParticipants() != null ? e.getCurrentParticipants() : 0)
-                .sum();
-
-        double totalRevenue = events.stream()
-                .mapToDouble(e -> {
-                    int participants = e.getCurrentParticipants() != null ? e.getCurrentParticipants() : 0;
-                    double price = e.getPrice() != null ? e.getPrice() : 0.0;
-                    return participants * price;
-                })
-                .sum();
-
-        double averageAttendance = events.stream()
-                .filter(e -> e.getMaxParticipants() != null && e.getMaxParticipants() > 0)
-                .mapToDouble(e -> {
-                    int participants = e.getCurrentParticipants() != null ? e.getCurrentParticipants() : 0;
-                    return (double) participants / e.getMaxParticipants() * 100;
-                })
-                .average()
-                .orElse(0.0);
-
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalEvents", totalEvents);
-        stats.put("upcomingEvents", upcomingEvents);
-        stats.put("pastEvents", pastEvents);
-        stats.put("totalParticipants", totalParticipants);
-        stats.put("totalRevenue", totalRevenue);
-        stats.put("averageAttendance", Math.round(averageAttendance));
-
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(organizerStatsService.getStats(organizerId));
     }
 
     // INTERNAL endpoints used by registration-service
     @PostMapping("/{eventId}/increment")
-    public ResponseEntity<Void> incrementParticipants(@PathVariable Long eventId) {
-        eventService.incrementParticipants(eventId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, String>> incrementParticipants(@PathVariable Long eventId) {
+        return seatChange(() -> eventService.incrementParticipants(eventId));
     }
 
     @PostMapping("/{eventId}/decrement")
-    public ResponseEntity<Void> decrementParticipants(@PathVariable Long eventId) {
-        eventService.decrementParticipants(eventId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, String>> decrementParticipants(@PathVariable Long eventId) {
+        return seatChange(() -> eventService.decrementParticipants(eventId));
     }
-}
 
+    // Unknown event -> 404; full or archived event -> 409 with the reason
+    private static ResponseEntity<Map<String, String>> seatChange(Runnable change) {
+        try {
+            change.run();
+            return ResponseEntity.ok().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bulk variant for group bookings and imports: one call, one UPDATE per event
+    @PostMapping("/seats/batch")
+    public ResponseEntity<List<SeatChangeResult>> applySeatChanges(@RequestBody List<SeatChangeRequest> changes) {
+        return ResponseEntity.ok(eventService.applySeatChanges(changes));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.eventservice.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of results. {@code nextCursor} is null on the last page.
+ */
+public class EventPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public EventPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,63 @@
+package com.example.eventservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of an event: no media URLs and only the start of the description,
+ * built directly by the query (see {@code EventSummaryQueries}).
+ */
+public class EventSummary {
+    public static final int DESCRIPTION_EXCERPT = 200;
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final LocalDateTime date;
+    private final String location;
+    private final String category;
+    private final String imageUrl;
+    private final Integer maxParticipants;
+    private final Integer currentParticipants;
+    private final Double price;
+    private final Long organizerId;
+    private final Boolean isActive;
+    private final String status;
+
+    public EventSummary(Long id, String title, String description, LocalDateTime date,
+                        String location, String category, String imageUrl,
+                        Integer maxParticipants, Integer currentParticipants, Double price,
+                        Long organizerId, Boolean isActive, String status) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.date = date;
+        this.location = location;
+        this.category = category;
+        this.imageUrl = imageUrl;
+        this.maxParticipants = maxParticipants;
+        this.currentParticipants = currentParticipants;
+        this.price = price;
+        this.organizerId = organizerId;
+        this.isActive = isActive;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public LocalDateTime getDate() { return date; }
+    public String getLocation() { return location; }
+    public String getCategory() { return category; }
+    public String getImageUrl() { return imageUrl; }
+    public Integer getMaxParticipants() { return maxParticipants; }
+    public Integer getCurrentParticipants() { return currentParticipants; }
+    public Double getPrice() { return price; }
+    public Long getOrganizerId() { return organizerId; }
+    public Boolean getIsActive() { return isActive; }
+    public String getStatus() { return status; }
+
+    public Integer getAvailablePlaces() {
+        if (maxParticipants == null) return 0;
+        return Math.max(0, maxParticipants - (currentParticipants == null ? 0 : currentParticipants));
+    }
+}
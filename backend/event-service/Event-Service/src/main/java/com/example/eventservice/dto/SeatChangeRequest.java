@@ -0,0 +1,24 @@
+package com.example.eventservice.dto;
+
+public class SeatChangeRequest {
+    private Long eventId;
+    private int seats; // > 0 reserves, < 0 releases
+    private String dedupeKey; // optional; a change whose key was already applied is not applied again
+
+    public SeatChangeRequest() {
+    }
+
+    public SeatChangeRequest(Long eventId, int seats) {
+        this.eventId = eventId;
+        this.seats = seats;
+    }
+
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public int getSeats() { return seats; }
+    public void setSeats(int seats) { this.seats = seats; }
+
+    public String getDedupeKey() { return dedupeKey; }
+    public void setDedupeKey(String dedupeKey) { this.dedupeKey = dedupeKey; }
+}
@@ -0,0 +1,20 @@
+package com.example.eventservice.dto;
+
+public class SeatChangeResult {
+    private final Long eventId;
+    private final int seats;
+    private final boolean applied;
+    private final String message;
+
+    public SeatChangeResult(Long eventId, int seats, boolean applied, String message) {
+        this.eventId = eventId;
+        this.seats = seats;
+        this.applied = applied;
+        this.message = message;
+    }
+
+    public Long getEventId() { return eventId; }
+    public int getSeats() { return seats; }
+    public boolean isApplied() { return applied; }
+    public String getMessage() { return message; }
+}
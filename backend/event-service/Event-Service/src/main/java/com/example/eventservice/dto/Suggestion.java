@@ -0,0 +1,18 @@
+package com.example.eventservice.dto;
+
+public class Suggestion {
+    public static final String TITLE = "TITLE";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String LOCATION = "LOCATION";
+
+    private final String type;
+    private final String value;
+
+    public Suggestion(String type, String value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public String getType() { return type; }
+    public String getValue() { return value; }
+}
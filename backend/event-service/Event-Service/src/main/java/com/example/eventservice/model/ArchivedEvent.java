@@ -0,0 +1,109 @@
+package com.example.eventservice.model;
+
+import jakarta.persistence.*;
+import org.hibernate.Hibernate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cold copy of an {@link Event} whose date has passed, moved out of the {@code events}
+ * table by {@code EventArchiver}. It keeps the original id so links stay valid.
+ */
+@Entity
+@Table(name = "events_archive", indexes = {
+        @Index(name = "idx_events_archive_organizer", columnList = "organizerId, date, id")
+})
+public class ArchivedEvent {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime date;
+
+    private String location;
+    private String category;
+
+    @ElementCollection
+    @CollectionTable(name = "events_archive_media_urls")
+    private List<String> mediaUrls;
+
+    private String imageUrl;
+    private Integer maxParticipants;
+    private Integer currentParticipants;
+    private Double price;
+
+    @Column(nullable = false)
+    private Long organizerId;
+
+    private Boolean isActive;
+    private String status;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedEvent() {
+    }
+
+    public static ArchivedEvent of(Event event, LocalDateTime archivedAt) {
+        ArchivedEvent a = new ArchivedEvent();
+        a.id = event.getId();
+        a.title = event.getTitle();
+        a.description = event.getDescription();
+        a.date = event.getDate();
+        a.location = event.getLocation();
+        a.category = event.getCategory();
+        a.mediaUrls = event.getMediaUrls() == null ? null : new ArrayList<>(event.getMediaUrls());
+        a.imageUrl = event.getImageUrl();
+        a.maxParticipants = event.getMaxParticipants();
+        a.currentParticipants = event.getCurrentParticipants();
+        a.price = event.getPrice();
+        a.organizerId = event.getOrganizerId();
+        a.isActive = event.getIsActive();
+        a.status = event.getStatus();
+        a.createdAt = event.getCreatedAt();
+        a.updatedAt = event.getUpdatedAt();
+        a.archivedAt = archivedAt;
+        return a;
+    }
+
+    /**
+     * Detached {@link Event} view, so read paths can serve archived and live events alike.
+     * Media URLs are only copied when they were fetched with this row.
+     */
+    public Event toEvent() {
+        Event e = new Event();
+        e.setId(id);
+        e.setTitle(title);
+        e.setDescription(description);
+        e.setDate(date);
+        e.setLocation(location);
+        e.setCategory(category);
+        if (mediaUrls != null && Hibernate.isInitialized(mediaUrls)) {
+            e.setMediaUrls(new ArrayList<>(mediaUrls));
+        }
+        e.setImageUrl(imageUrl);
+        e.setMaxParticipants(maxParticipants);
+        e.setCurrentParticipants(currentParticipants);
+        e.setPrice(price);
+        e.setOrganizerId(organizerId);
+        e.setIsActive(isActive);
+        e.setStatus(status);
+        e.setTimestamps(createdAt, updatedAt);
+        return e;
+    }
+
+    public Long getId() { return id; }
+    public LocalDateTime getDate() { return date; }
+    public Long getOrganizerId() { return organizerId; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -5,7 +5,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_active_date", columnList = "isActive, date, id")
+})
+@EntityListeners(EventChangeListener.class)
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -104,6 +107,12 @@ public class Event {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
 
+    // Only for rebuilding a detached copy, see ArchivedEvent#toEvent
+    void setTimestamps(LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     @Transient
     public Integer getAvailablePlaces() {
         if (maxParticipants == null) return 0;
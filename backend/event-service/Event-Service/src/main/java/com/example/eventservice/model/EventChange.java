@@ -0,0 +1,22 @@
+package com.example.eventservice.model;
+
+/**
+ * Published by {@link EventChangeListener} after an {@link Event} row is written or deleted,
+ * so in-memory read models can follow the table without polling it. {@code ARCHIVED} is
+ * published by {@code EventArchiver} once the row has moved to {@code events_archive}.
+ */
+public class EventChange {
+
+    public enum Type { SAVED, REMOVED, ARCHIVED }
+
+    private final Event event;
+    private final Type type;
+
+    public EventChange(Event event, Type type) {
+        this.event = event;
+        this.type = type;
+    }
+
+    public Event getEvent() { return event; }
+    public Type getType() { return type; }
+}
@@ -0,0 +1,34 @@
+package com.example.eventservice.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener turning persist/update/remove callbacks on {@link Event} into
+ * {@link EventChange} application events. Callbacks fire at flush time, before the commit,
+ * so read models listen in the {@code AFTER_COMMIT} phase. Bulk JPQL updates bypass it,
+ * so services issuing them notify their read models themselves.
+ */
+@Component
+public class EventChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public EventChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Event event) {
+        publisher.publishEvent(new EventChange(event, EventChange.Type.SAVED));
+    }
+
+    @PostRemove
+    public void onRemove(Event event) {
+        publisher.publishEvent(new EventChange(event, EventChange.Type.REMOVED));
+    }
+}
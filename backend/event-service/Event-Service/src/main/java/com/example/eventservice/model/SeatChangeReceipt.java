@@ -0,0 +1,60 @@
+package com.example.eventservice.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a seat change applied through {@code POST /api/events/seats/batch}, keyed by the
+ * dedupe key its sender attached. A retried change whose key is already here is acknowledged
+ * without being applied again. Receipts are purged once no retry can still arrive.
+ */
+@Entity
+@Table(name = "seat_change_receipts", indexes = {
+        @Index(name = "idx_seat_change_receipts_applied", columnList = "appliedAt")
+})
+public class SeatChangeReceipt implements Persistable<String> {
+    @Id
+    private String dedupeKey;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private int seats;
+
+    @Column(nullable = false)
+    private LocalDateTime appliedAt;
+
+    // Always inserted, never updated: saves skip the select a merge would issue
+    @Transient
+    private boolean fresh = true;
+
+    protected SeatChangeReceipt() {
+    }
+
+    public SeatChangeReceipt(String dedupeKey, Long eventId, int seats, LocalDateTime appliedAt) {
+        this.dedupeKey = dedupeKey;
+        this.eventId = eventId;
+        this.seats = seats;
+        this.appliedAt = appliedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void stored() {
+        fresh = false;
+    }
+
+    @Override
+    public String getId() { return dedupeKey; }
+
+    @Override
+    public boolean isNew() { return fresh; }
+
+    public String getDedupeKey() { return dedupeKey; }
+    public Long getEventId() { return eventId; }
+    public int getSeats() { return seats; }
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+}
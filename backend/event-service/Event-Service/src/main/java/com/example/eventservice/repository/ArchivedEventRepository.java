@@ -0,0 +1,33 @@
+package com.example.eventservice.repository;
+
+import com.example.eventservice.dto.EventSummary;
+import com.example.eventservice.model.ArchivedEvent;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Long> {
+
+    @EntityGraph(attributePaths = "mediaUrls")
+    Optional<ArchivedEvent> findWithMediaById(Long id);
+
+    @Query("""
+        SELECT new com.example.eventservice.dto.EventSummary(
+            a.id, a.title, SUBSTRING(a.description, 1, 200), a.date, a.location, a.category, a.imageUrl,
+            a.maxParticipants, a.currentParticipants, a.price, a.organizerId, a.isActive, a.status)
+        FROM ArchivedEvent a WHERE a.organizerId = :organizerId
+        ORDER BY a.date, a.id
+    """)
+    List<EventSummary> findSummariesByOrganizerId(@Param("organizerId") Long organizerId);
+
+    @Query("""
+        SELECT a.id AS id, a.organizerId AS organizerId, a.date AS date, a.maxParticipants AS maxParticipants,
+               a.price AS price, a.currentParticipants AS currentParticipants
+        FROM ArchivedEvent a
+    """)
+    List<EventRepository.EventFigures> findAllFigures();
+}
@@ -1,26 +1,101 @@
 package com.example.eventservice.repository;
 
 import com.example.eventservice.model.Event;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventSummaryQueries {
     List<Event> findByOrganizerId(Long organizerId);
     List<Event> findByIsActiveTrue();
     List<Event> findByCategoryAndIsActiveTrue(String category);
     List<Event> findByLocationContainingIgnoreCaseAndIsActiveTrue(String location);
 
+    List<Event> findByDateBetweenAndIsActiveTrue(LocalDateTime start, LocalDateTime end);
+
+    // Detail view: the event and its media URLs in one query
+    @EntityGraph(attributePaths = "mediaUrls")
+    Optional<Event> findWithMediaById(Long id);
+
+    @Query("SELECT e.id AS id, e.updatedAt AS updatedAt FROM Event e WHERE e.isActive = true")
+    List<EventVersion> findActiveVersions();
+
+    interface EventVersion {
+        Long getId();
+        LocalDateTime getUpdatedAt();
+    }
+
     @Query("""
-        SELECT e FROM Event e
-        WHERE e.isActive = true
-        AND (LOWER(e.title) LIKE LOWER(CONCAT('%',:keyword,'%'))
-             OR LOWER(e.description) LIKE LOWER(CONCAT('%',:keyword,'%')))
+        SELECT e.id AS id, e.title AS title, e.category AS category, e.location AS location
+        FROM Event e WHERE e.isActive = true
     """)
-    List<Event> searchByKeyword(@Param("keyword") String keyword);
+    List<EventLabels> findActiveLabels();
 
-    List<Event> findByDateBetweenAndIsActiveTrue(LocalDateTime start, LocalDateTime end);
+    interface EventLabels {
+        Long getId();
+        String getTitle();
+        String getCategory();
+        String getLocation();
+    }
+
+    // Only the columns the organizer stats add up (see OrganizerStatsService)
+    @Query("""
+        SELECT e.id AS id, e.organizerId AS organizerId, e.date AS date, e.maxParticipants AS maxParticipants,
+               e.price AS price, e.currentParticipants AS currentParticipants
+        FROM Event e
+    """)
+    List<EventFigures> findAllFigures();
+
+    interface EventFigures {
+        Long getId();
+        Long getOrganizerId();
+        LocalDateTime getDate();
+        Integer getMaxParticipants();
+        Double getPrice();
+        Integer getCurrentParticipants();
+    }
+
+    // Seat counters are updated with conditional UPDATEs so concurrent registrations
+    // can never oversell: the capacity check and the change are one statement.
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Event e
+        SET e.currentParticipants = e.currentParticipants + :seats, e.updatedAt = :now
+        WHERE e.id = :id
+        AND (e.maxParticipants IS NULL OR e.maxParticipants <= 0
+             OR e.currentParticipants + :seats <= e.maxParticipants)
+    """)
+    int reserveSeats(@Param("id") Long id, @Param("seats") int seats, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Event e
+        SET e.currentParticipants = e.currentParticipants - :seats, e.updatedAt = :now
+        WHERE e.id = :id AND e.currentParticipants >= :seats
+    """)
+    int releaseSeats(@Param("id") Long id, @Param("seats") int seats, @Param("now") LocalDateTime now);
+
+    // ===== archival (see EventArchiver) =====
+
+    @Query("SELECT e.id FROM Event e WHERE e.date < :cutoff ORDER BY e.id")
+    List<Long> findIdsDatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id IN :ids")
+    List<Event> lockAllById(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.mediaUrls WHERE e.id IN :ids")
+    List<Event> fetchMediaUrls(@Param("ids") Collection<Long> ids);
 }
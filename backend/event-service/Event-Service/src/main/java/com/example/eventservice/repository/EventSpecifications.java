@@ -0,0 +1,85 @@
+package com.example.eventservice.repository;
+
+import com.example.eventservice.model.Event;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Composable filters for the public event search. Each factory returns {@code null}
+ * when its criterion is absent, which {@link Specification#and} simply skips.
+ */
+public final class EventSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+
+    public static Specification<Event> organizer(Long organizerId) {
+        return (root, query, cb) -> cb.equal(root.get("organizerId"), organizerId);
+    }
+
+    /** Keyset condition: rows strictly after (date, id) in (date, id) order. */
+    public static Specification<Event> after(LocalDateTime date, Long id) {
+        if (date == null || id == null) return null;
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.greaterThan(root.get("id"), id)));
+    }
+
+    /** Substring match on title or description, for keywords the full-text index has no term for. */
+    public static Specification<Event> keyword(String keyword) {
+        if (keyword == null || keyword.isBlank()) return null;
+        String pattern = containsPattern(keyword);
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("title")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("description")), pattern, LIKE_ESCAPE)
+        );
+    }
+
+    public static Specification<Event> idIn(Collection<Long> ids) {
+        if (ids == null) return null;
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Event> category(String category) {
+        if (category == null || category.isBlank()) return null;
+        String value = category.toLowerCase();
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("category")), value);
+    }
+
+    public static Specification<Event> locationContains(String location) {
+        if (location == null || location.isBlank()) return null;
+        String pattern = containsPattern(location);
+        return (root, query, cb) -> cb.like(cb.lower(root.get("location")), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<Event> dateFrom(LocalDateTime min) {
+        if (min == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), min);
+    }
+
+    public static Specification<Event> dateTo(LocalDateTime max) {
+        if (max == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), max);
+    }
+
+    public static Specification<Event> maxPrice(Double maxPrice) {
+        if (maxPrice == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.eventservice.repository;
+
+import com.example.eventservice.dto.EventSummary;
+import com.example.eventservice.model.Event;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface EventSummaryQueries {
+
+    /**
+     * Summaries of the events matching {@code spec}, ordered by (date, id), in a single
+     * query that never touches {@code mediaUrls}. {@code limit <= 0} means no limit.
+     */
+    List<EventSummary> findSummaries(Specification<Event> spec, int limit);
+}
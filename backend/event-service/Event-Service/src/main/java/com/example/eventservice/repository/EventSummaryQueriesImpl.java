@@ -0,0 +1,50 @@
+package com.example.eventservice.repository;
+
+import com.example.eventservice.dto.EventSummary;
+import com.example.eventservice.model.Event;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class EventSummaryQueriesImpl implements EventSummaryQueries {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<EventSummary> findSummaries(Specification<Event> spec, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<EventSummary> query = cb.createQuery(EventSummary.class);
+        Root<Event> e = query.from(Event.class);
+
+        query.select(cb.construct(EventSummary.class,
+                e.get("id"),
+                e.get("title"),
+                cb.substring(e.get("description"), 1, EventSummary.DESCRIPTION_EXCERPT),
+                e.get("date"),
+                e.get("location"),
+                e.get("category"),
+                e.get("imageUrl"),
+                e.get("maxParticipants"),
+                e.get("currentParticipants"),
+                e.get("price"),
+                e.get("organizerId"),
+                e.get("isActive"),
+                e.get("status")));
+
+        Predicate where = spec == null ? null : spec.toPredicate(e, query, cb);
+        if (where != null) query.where(where);
+        query.orderBy(cb.asc(e.get("date")), cb.asc(e.get("id")));
+
+        TypedQuery<EventSummary> typed = em.createQuery(query);
+        if (limit > 0) typed.setMaxResults(limit);
+        return typed.getResultList();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.eventservice.repository;
+
+import com.example.eventservice.model.SeatChangeReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface SeatChangeReceiptRepository extends JpaRepository<SeatChangeReceipt, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SeatChangeReceipt r WHERE r.appliedAt < :cutoff")
+    int deleteAppliedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
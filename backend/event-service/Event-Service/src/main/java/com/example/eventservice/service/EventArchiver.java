@@ -0,0 +1,95 @@
+package com.example.eventservice.service;
+
+import com.example.eventservice.model.ArchivedEvent;
+import com.example.eventservice.model.Event;
+import com.example.eventservice.model.EventChange;
+import com.example.eventservice.repository.EventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves events whose date has passed from {@code events} to {@code events_archive}, in batches,
+ * so the hot table and its indexes only grow with upcoming inventory. An event is only archived
+ * once a grace period after its start has elapsed: it may still be running, taking check-ins and
+ * late cancellations, and the archive freezes its seat counter. Rows leave through bulk
+ * deletes, which the entity listener does not see: read models are sent an
+ * {@link EventChange.Type#ARCHIVED} change once each batch has committed.
+ */
+@Service
+public class EventArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(EventArchiver.class);
+
+    private final EventRepository repo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+    private final Duration gracePeriod;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public EventArchiver(EventRepository repo,
+                         PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher publisher,
+                         @Value("${events.archive.batch-size:500}") int batchSize,
+                         @Value("${events.archive.grace-hours:72}") long graceHours) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.gracePeriod = Duration.ofHours(graceHours);
+    }
+
+    @Scheduled(fixedDelayString = "${events.archive.interval-ms:3600000}",
+            initialDelayString = "${events.archive.initial-delay-ms:60000}")
+    public void archivePastEvents() {
+        archiveBefore(LocalDateTime.now().minus(gracePeriod));
+    }
+
+    /** Archives every event dated before {@code cutoff} and returns how many were moved. */
+    public int archiveBefore(LocalDateTime cutoff) {
+        int total = 0;
+        List<Event> moved;
+        do {
+            moved = tx.execute(status -> archiveBatch(cutoff));
+            moved.forEach(e -> publisher.publishEvent(new EventChange(e, EventChange.Type.ARCHIVED)));
+            total += moved.size();
+        } while (moved.size() == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} past event(s) dated before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private List<Event> archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = repo.findIdsDatedBefore(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) return List.of();
+
+        // Row locks make concurrent seat updates wait, then miss the row, instead of being lost
+        List<Event> events = repo.lockAllById(ids);
+        repo.fetchMediaUrls(ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(e -> em.persist(ArchivedEvent.of(e, now)));
+        em.flush();
+
+        // Hibernate also clears the mediaUrls collection table for bulk deletes
+        repo.deleteAllByIdInBatch(ids);
+        return events;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.eventservice.service;
+
+import com.example.eventservice.model.EventChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of serialized event detail responses, evicting on entry count,
+ * total bytes and age. Entries are dropped whenever the event is written, including
+ * seat counter changes, which callers report through {@link #invalidate(Long)}.
+ */
+@Component
+public class EventDetailCache {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    // Bumped by every invalidation; a load that started before one must not be cached
+    private long generation;
+
+    public EventDetailCache(@Value("${events.detail-cache.max-entries:1000}") int maxEntries,
+                            @Value("${events.detail-cache.max-bytes:16777216}") long maxBytes,
+                            @Value("${events.detail-cache.ttl-ms:60000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized Entry get(Long eventId) {
+        Entry entry = entries.get(eventId);
+        if (entry == null) return null;
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            evict(eventId);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /** Caches {@code entry} unless something was invalidated since {@code loadedAtGeneration}. */
+    public synchronized void put(Long eventId, Entry entry, long loadedAtGeneration) {
+        if (loadedAtGeneration != generation || entry.body.length > maxBytes) return;
+        evict(eventId);
+        entries.put(eventId, entry);
+        totalBytes += entry.body.length;
+
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().body.length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Drops the entry once the caller's transaction has committed, or right away outside one.
+     * A read that loaded the previous row before then carries an older generation and is not cached.
+     */
+    public void invalidate(Long eventId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAndBump(eventId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAndBump(eventId);
+            }
+        });
+    }
+
+    private synchronized void evictAndBump(Long eventId) {
+        generation++;
+        evict(eventId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        if (change.getEvent().getId() != null) {
+            evictAndBump(change.getEvent().getId());
+        }
+    }
+
+    private void evict(Long eventId) {
+        Entry removed = entries.remove(eventId);
+        if (removed != null) totalBytes -= removed.body.length;
+    }
+
+    public Entry newEntry(byte[] body, String etag, long lastModified) {
+        return new Entry(body, etag, lastModified, System.currentTimeMillis() + ttlMillis);
+    }
+
+    public static final class Entry {
+        private final byte[] body;
+        private final String etag;
+        private final long lastModified;
+        private final long expiresAt;
+
+        private Entry(byte[] body, String etag, long lastModified, long expiresAt) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+
+        public byte[] getBody() { return body; }
+        public String getEtag() { return etag; }
+        public long getLastModified() { return lastModified; }
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.eventservice.service;
+
+import com.example.eventservice.model.Event;
+import com.example.eventservice.model.EventChange;
+import com.example.eventservice.repository.EventRepository;
+import com.example.eventservice.util.TextNormalizer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded full-text index over the title and description of active events.
+ * Terms are accent-folded (see {@link TextNormalizer}), results are ranked with BM25,
+ * and each query term also matches indexed terms it is a prefix of ("conf" -> "conference").
+ * The forward index is snapshotted to local disk and caught up against the table on startup.
+ */
+@Service
+public class EventFullTextIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventFullTextIndex.class);
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final EventRepository repo;
+    private final Path snapshotFile;
+
+    // term -> (eventId -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+    private boolean dirty;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public EventFullTextIndex(EventRepository repo,
+                              @Value("${events.fulltext.dir:./data/fulltext}") String directory) {
+        this.repo = repo;
+        this.snapshotFile = Path.of(directory, "events.idx");
+    }
+
+    /**
+     * Ids of active events containing every query term, best match first.
+     * Returns an empty list when the query has no searchable term.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = TextNormalizer.terms(query);
+        if (terms.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            return score(terms).entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every active event containing every query term, unranked, or {@code null} when more than
+     * {@code max} events match: the caller then filters on the text itself rather than on a
+     * truncated id list. Empty when the query has no searchable term.
+     */
+    public Set<Long> matches(String query, int max) {
+        List<String> terms = TextNormalizer.terms(query);
+        if (terms.isEmpty()) return Set.of();
+
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = score(terms).keySet();
+            return ids.size() > max ? null : new HashSet<>(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        Event event = change.getEvent();
+        if (event.getId() == null) return;
+        if (change.getType() == EventChange.Type.SAVED && Boolean.TRUE.equals(event.getIsActive())) {
+            index(event);
+        } else {
+            remove(event.getId());
+        }
+    }
+
+    public void index(Event event) {
+        Map<String, Integer> tf = new HashMap<>();
+        TextNormalizer.terms(event.getTitle()).forEach(t -> tf.merge(t, TITLE_WEIGHT, Integer::sum));
+        TextNormalizer.terms(event.getDescription()).forEach(t -> tf.merge(t, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            unlink(event.getId());
+            link(new Doc(event.getId(), event.getUpdatedAt(), tf));
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            if (unlink(eventId) != null) dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== startup / persistence =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (Files.exists(snapshotFile)) {
+            try {
+                readSnapshot();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable full-text snapshot {}: {}", snapshotFile, e.getMessage());
+                clear();
+            }
+        }
+        catchUp();
+    }
+
+    /** Reindexes rows changed since the snapshot and drops documents that are gone or inactive. */
+    private void catchUp() {
+        Map<Long, LocalDateTime> live = new HashMap<>();
+        repo.findActiveVersions().forEach(v -> live.put(v.getId(), v.getUpdatedAt()));
+
+        List<Long> stale = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (Long id : new ArrayList<>(docs.keySet())) {
+                if (!live.containsKey(id)) {
+                    unlink(id);
+                    dirty = true;
+                }
+            }
+            live.forEach((id, updatedAt) -> {
+                Doc doc = docs.get(id);
+                if (doc == null || !sameVersion(doc.updatedAt, updatedAt)) stale.add(id);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        repo.findAllById(stale).forEach(this::index);
+        log.info("Full-text index ready: {} documents, {} reindexed", docs.size(), stale.size());
+    }
+
+    @Scheduled(fixedDelayString = "${events.fulltext.snapshot-interval-ms:30000}")
+    @PreDestroy
+    public synchronized void snapshot() {
+        lock.readLock().lock();
+        try {
+            if (!dirty) return;
+            Files.createDirectories(snapshotFile.getParent());
+            Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(docs.size());
+                for (Doc doc : docs.values()) {
+                    out.writeLong(doc.id);
+                    out.writeUTF(doc.updatedAt == null ? "" : doc.updatedAt.toString());
+                    out.writeInt(doc.termFrequencies.size());
+                    for (Map.Entry<String, Integer> e : doc.termFrequencies.entrySet()) {
+                        out.writeUTF(e.getKey());
+                        out.writeInt(e.getValue());
+                    }
+                }
+            }
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Could not write full-text snapshot {}: {}", snapshotFile, e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void readSnapshot() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(snapshotFile))))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("unsupported snapshot version");
+            }
+            int count = in.readInt();
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (int i = 0; i < count; i++) {
+                    long id = in.readLong();
+                    String updatedAt = in.readUTF();
+                    int terms = in.readInt();
+                    Map<String, Integer> tf = new HashMap<>(terms * 2);
+                    for (int t = 0; t < terms; t++) {
+                        tf.put(in.readUTF(), in.readInt());
+                    }
+                    link(new Doc(id, updatedAt.isEmpty() ? null : LocalDateTime.parse(updatedAt), tf));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ===== internals (callers hold the lock) =====
+
+    // BM25 score of each event matching every term; empty as soon as one term matches nothing
+    private Map<Long, Double> score(List<String> terms) {
+        Map<Long, Double> scores = null;
+        double avgLength = docs.isEmpty() ? 1 : (double) totalLength / docs.size();
+
+        for (String term : new LinkedHashSet<>(terms)) {
+            Map<Long, Double> termScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Integer>> posting : expand(term)) {
+                double idf = idf(posting.getValue().size());
+                posting.getValue().forEach((id, tf) -> {
+                    double norm = tf + K1 * (1 - B + B * docs.get(id).length / avgLength);
+                    termScores.merge(id, idf * tf * (K1 + 1) / norm, Double::sum);
+                });
+            }
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                    e.setValue(e.getValue() + termScores.get(e.getKey()));
+                }
+            }
+            if (scores.isEmpty()) return Map.of();
+        }
+        return scores;
+    }
+
+    // Every indexed term the query term is a prefix of: no cap, a completion left out would
+    // silently drop its events from the results
+    private Collection<Map.Entry<String, Map<Long, Integer>>> expand(String term) {
+        List<Map.Entry<String, Map<Long, Integer>>> matches = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, Integer>> e : postings.tailMap(term, true).entrySet()) {
+            if (!e.getKey().startsWith(term)) break;
+            matches.add(e);
+        }
+        return matches;
+    }
+
+    // The column keeps microseconds while the entity that was indexed may carry nanoseconds
+    private static boolean sameVersion(LocalDateTime indexed, LocalDateTime stored) {
+        if (indexed == null || stored == null) return indexed == stored;
+        return Math.abs(Duration.between(indexed, stored).toNanos()) < 1_000;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (docs.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void link(Doc doc) {
+        docs.put(doc.id, doc);
+        totalLength += doc.length;
+        doc.termFrequencies.forEach((term, tf) ->
+                postings.computeIfAbsent(term, k -> new HashMap<>()).put(doc.id, tf));
+    }
+
+    private Doc unlink(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) return null;
+        totalLength -= doc.length;
+        for (String term : doc.termFrequencies.keySet()) {
+            Map<Long, Integer> ids = postings.get(term);
+            if (ids == null) continue;
+            ids.remove(id);
+            if (ids.isEmpty()) postings.remove(term);
+        }
+        return doc;
+    }
+
+    private void clear() {
+        postings.clear();
+        docs.clear();
+        totalLength = 0;
+    }
+
+    private static final class Doc {
+        final long id;
+        final LocalDateTime updatedAt;
+        final Map<String, Integer> termFrequencies;
+        final int length;
+
+        Doc(long id, LocalDateTime updatedAt, Map<String, Integer> termFrequencies) {
+            this.id = id;
+            this.updatedAt = updatedAt;
+            this.termFrequencies = termFrequencies;
+            this.length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.eventservice.service;
+
+import com.example.eventservice.model.Event;
+import com.example.eventservice.model.EventChange;
+import com.example.eventservice.repository.EventRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process secondary index over the category and location of active events: the two
+ * search filters the (date, id) ordered query cannot narrow with a B-tree index (a location
+ * is matched as a substring). When they are selective, {@link EventService#search} restricts
+ * the query to the ids found here; the query still applies every filter, so a stale entry is
+ * filtered out. The index does lag behind writes: an event is only linked once its transaction
+ * has committed, so a search in between leaves it out. Until the startup rebuild has run there
+ * is no index at all and {@link #find} leaves the filtering to the query.
+ */
+@Component
+public class EventSearchIndex {
+
+    private final EventRepository repo;
+
+    // id -> indexed attributes, used to verify candidates and to unlink stale postings
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> byCategory = new HashMap<>();
+    private final Map<String, Set<Long>> byLocationToken = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by the lock
+    private boolean ready;
+
+    public EventSearchIndex(EventRepository repo) {
+        this.repo = repo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<EventRepository.EventLabels> active = repo.findActiveLabels();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byCategory.clear();
+            byLocationToken.clear();
+            for (EventRepository.EventLabels l : active) {
+                link(new Entry(l.getId(), l.getCategory(), l.getLocation()));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // After commit: a rolled back write must not move the event in or out of the index
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        Event event = change.getEvent();
+        if (event.getId() == null) return;
+
+        boolean active = change.getType() == EventChange.Type.SAVED && Boolean.TRUE.equals(event.getIsActive());
+        lock.writeLock().lock();
+        try {
+            unlink(event.getId());
+            if (active) {
+                link(new Entry(event.getId(), event.getCategory(), event.getLocation()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the active events matching both filters, or {@code null} when neither filter is set,
+     * the index is not built yet or more than {@code maxCandidates} events match: the query then
+     * filters on its own.
+     * The smaller posting list drives the scan; the other filter is checked on the entry.
+     */
+    public Set<Long> find(String category, String location, int maxCandidates) {
+        String cat = category == null || category.isBlank() ? null : category.toLowerCase();
+        String loc = location == null || location.isBlank() ? null : location.toLowerCase();
+        if (cat == null && loc == null) return null;
+
+        lock.readLock().lock();
+        try {
+            if (!ready) return null;
+            List<Collection<Long>> candidates = new ArrayList<>();
+            if (cat != null) {
+                candidates.add(byCategory.getOrDefault(cat, Set.of()));
+            }
+            if (loc != null) {
+                Set<Long> byLocation = locationCandidates(loc);
+                if (byLocation == null) {
+                    // No indexable token ("-", "  "): only the substring match can answer
+                    if (cat == null) return null;
+                } else {
+                    candidates.add(byLocation);
+                }
+            }
+
+            Collection<Long> driver = candidates.stream()
+                    .min(Comparator.comparingInt(Collection::size))
+                    .orElseThrow();
+
+            Set<Long> result = new HashSet<>();
+            for (Long id : driver) {
+                Entry entry = entries.get(id);
+                if (entry != null
+                        && (cat == null || cat.equals(entry.category))
+                        && (loc == null || (entry.location != null && entry.location.contains(loc)))) {
+                    result.add(id);
+                    if (result.size() > maxCandidates) return null;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Location filtering is a substring match: every query token must be contained in
+    // one of the indexed tokens, so the candidates are the intersection over query tokens.
+    private Set<Long> locationCandidates(String loc) {
+        Set<Long> ids = null;
+        for (String queryToken : tokenize(loc)) {
+            Set<Long> matching = new HashSet<>();
+            for (Map.Entry<String, Set<Long>> posting : byLocationToken.entrySet()) {
+                if (posting.getKey().contains(queryToken)) {
+                    matching.addAll(posting.getValue());
+                }
+            }
+            if (ids == null) {
+                ids = matching;
+            } else {
+                ids.retainAll(matching);
+            }
+        }
+        return ids;
+    }
+
+    // ===== internals (callers hold the write lock) =====
+
+    private void link(Entry entry) {
+        entries.put(entry.id, entry);
+        if (entry.category != null) {
+            byCategory.computeIfAbsent(entry.category, k -> new HashSet<>()).add(entry.id);
+        }
+        for (String token : tokenize(entry.location)) {
+            byLocationToken.computeIfAbsent(token, k -> new HashSet<>()).add(entry.id);
+        }
+    }
+
+    private void unlink(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        if (entry.category != null) {
+            removePosting(byCategory, entry.category, id);
+        }
+        for (String token : tokenize(entry.location)) {
+            removePosting(byLocationToken, token, id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) postings.remove(key);
+    }
+
+    private static Set<String> tokenize(String value) {
+        if (value == null || value.isBlank()) return Set.of();
+        Set<String> tokens = new HashSet<>();
+        for (String token : value.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static final class Entry {
+        final Long id;
+        final String category;
+        final String location;
+
+        Entry(Long id, String category, String location) {
+            this.id = id;
+            this.category = category == null ? null : category.toLowerCase();
+            this.location = location == null ? null : location.toLowerCase();
+        }
+    }
+}
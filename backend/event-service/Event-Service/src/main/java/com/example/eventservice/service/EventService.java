@@ -1,102 +1,330 @@
 package com.example.eventservice.service;
 
+import com.example.eventservice.dto.EventPage;
+import com.example.eventservice.dto.EventSummary;
+import com.example.eventservice.dto.SeatChangeRequest;
+import com.example.eventservice.dto.SeatChangeResult;
+import com.example.eventservice.model.ArchivedEvent;
 import com.example.eventservice.model.Event;
+import com.example.eventservice.model.SeatChangeReceipt;
+import com.example.eventservice.repository.ArchivedEventRepository;
 import com.example.eventservice.repository.EventRepository;
+import com.example.eventservice.repository.EventSpecifications;
+import com.example.eventservice.repository.SeatChangeReceiptRepository;
+import com.example.eventservice.util.TextNormalizer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class EventService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    // Above this many ids, an IN list costs more than letting the query filter the rows itself
+    static final int MAX_INDEX_CANDIDATES = 1000;
+    static final String ARCHIVED = "Event has been archived";
+    static final String ALREADY_APPLIED = "Already applied";
+
     private final EventRepository repo;
+    private final ArchivedEventRepository archiveRepo;
+    private final SeatChangeReceiptRepository receiptRepo;
+    private final OrganizerStatsService statsService;
+    private final EventFullTextIndex fullTextIndex;
+    private final EventSearchIndex searchIndex;
+    private final EventDetailCache detailCache;
+    private final ObjectMapper objectMapper;
+    private final Duration receiptRetention;
 
-    public EventService(EventRepository repo) {
+    public EventService(EventRepository repo,
+                        ArchivedEventRepository archiveRepo,
+                        SeatChangeReceiptRepository receiptRepo,
+                        OrganizerStatsService statsService,
+                        EventFullTextIndex fullTextIndex,
+                        EventSearchIndex searchIndex,
+                        EventDetailCache detailCache,
+                        ObjectMapper objectMapper,
+                        @Value("${events.seat-receipts.retention-hours:168}") long receiptRetentionHours) {
         this.repo = repo;
+        this.archiveRepo = archiveRepo;
+        this.receiptRepo = receiptRepo;
+        this.statsService = statsService;
+        this.fullTextIndex = fullTextIndex;
+        this.searchIndex = searchIndex;
+        this.detailCache = detailCache;
+        this.objectMapper = objectMapper;
+        this.receiptRetention = Duration.ofHours(receiptRetentionHours);
     }
 
+    /** Live event, or its archived copy once it has been moved out of the hot table. */
     public Optional<Event> getById(Long id) {
-        return repo.findById(id);
+        return repo.findById(id)
+                .or(() -> archiveRepo.findById(id).map(ArchivedEvent::toEvent));
+    }
+
+    /**
+     * Serialized detail response for {@code GET /api/events/{id}}, read through {@link EventDetailCache}.
+     * The ETag and Last-Modified values are derived from {@code updatedAt}.
+     */
+    public Optional<EventDetailCache.Entry> getDetail(Long id) {
+        EventDetailCache.Entry cached = detailCache.get(id);
+        if (cached != null) return Optional.of(cached);
+
+        long generation = detailCache.generation();
+        Optional<Event> event = repo.findWithMediaById(id)
+                .or(() -> archiveRepo.findWithMediaById(id).map(ArchivedEvent::toEvent));
+        if (event.isEmpty()) return Optional.empty();
+
+        EventDetailCache.Entry entry = toDetail(event.get());
+        detailCache.put(id, entry, generation);
+        return Optional.of(entry);
+    }
+
+    private EventDetailCache.Entry toDetail(Event event) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize event " + event.getId(), e);
+        }
+        Instant version = event.getUpdatedAt() != null
+                ? event.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant()
+                : Instant.EPOCH;
+        long micros = version.getEpochSecond() * 1_000_000 + version.getNano() / 1_000;
+        String etag = "\"" + event.getId() + "-" + micros + "\"";
+        return detailCache.newEntry(body, etag, version.toEpochMilli());
     }
 
-    public List<Event> getEventsByOrganizer(Long organizerId) {
-        return repo.findByOrganizerId(organizerId);
+    /** All of the organizer's events, live and archived, in (date, id) order. */
+    public List<EventSummary> getEventsByOrganizer(Long organizerId) {
+        // Hot table first: an event archived in between is then seen twice rather than missed
+        Map<Long, EventSummary> byId = new LinkedHashMap<>();
+        repo.findSummaries(EventSpecifications.organizer(organizerId), 0).forEach(e -> byId.put(e.getId(), e));
+        archiveRepo.findSummariesByOrganizerId(organizerId).forEach(e -> byId.putIfAbsent(e.getId(), e));
+
+        List<EventSummary> events = new ArrayList<>(byId.values());
+        events.sort(Comparator.comparing(EventSummary::getDate).thenComparing(EventSummary::getId));
+        return events;
     }
 
-    public List<Event> search(
+    /**
+     * Runs the public search as a single query and returns one keyset page ordered by (date, id).
+     * {@code cursor} is the opaque value returned as {@code nextCursor} by the previous page.
+     * Selective category/location filters are first resolved by {@link EventSearchIndex}
+     * and passed to the query as a bounded id list. So is the keyword, through
+     * {@link EventFullTextIndex}, unless it matches more than {@link #MAX_INDEX_CANDIDATES}
+     * events: the query then matches the keyword against the text itself.
+     */
+    public EventPage<EventSummary> search(
             String keyword,
             String category,
             String location,
             String minDate,
             String maxDate,
-            Double maxPrice
+            Double maxPrice,
+            String cursor,
+            Integer size
     ) {
-        List<Event> base = repo.findByIsActiveTrue();
-
+        Set<Long> filtered = searchIndex.find(category, location, MAX_INDEX_CANDIDATES);
+        Collection<Long> candidates = filtered;
+        Specification<Event> keywordFilter = null;
         if (keyword != null && !keyword.isBlank()) {
-            base = repo.searchByKeyword(keyword);
+            if (TextNormalizer.terms(keyword).isEmpty()) {
+                // Only stop words or single characters: nothing indexed, match the raw text
+                keywordFilter = EventSpecifications.keyword(keyword);
+            } else if (filtered != null) {
+                // Already bounded by the other filters, so every keyword match counts
+                filtered.retainAll(fullTextIndex.matches(keyword, Integer.MAX_VALUE));
+            } else {
+                candidates = fullTextIndex.matches(keyword, MAX_INDEX_CANDIDATES);
+                if (candidates == null) {
+                    // Too broad for an id list: the date, price and cursor filters must see every match
+                    keywordFilter = EventSpecifications.keyword(keyword);
+                }
+            }
         }
-
-        if (category != null && !category.isBlank()) {
-            base = base.stream()
-                    .filter(e -> category.equalsIgnoreCase(e.getCategory()))
-                    .collect(Collectors.toList());
+        if (candidates != null && candidates.isEmpty()) {
+            return new EventPage<>(List.of(), null);
         }
 
-        if (location != null && !location.isBlank()) {
-            String loc = location.toLowerCase();
-            base = base.stream()
-                    .filter(e -> e.getLocation() != null &&
-                            e.getLocation().toLowerCase().contains(loc))
-                    .collect(Collectors.toList());
+        Specification<Event> spec = Specification.where(EventSpecifications.isActive())
+                .and(EventSpecifications.idIn(candidates))
+                .and(keywordFilter)
+                .and(EventSpecifications.category(category))
+                .and(EventSpecifications.locationContains(location))
+                .and(EventSpecifications.dateFrom(parseDate(minDate)))
+                .and(EventSpecifications.dateTo(parseDate(maxDate)))
+                .and(EventSpecifications.maxPrice(maxPrice))
+                .and(decodeCursor(cursor));
+
+        int limit = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // One extra row tells whether there is a next page
+        List<EventSummary> rows = repo.findSummaries(spec, limit + 1);
+        if (rows.size() <= limit) {
+            return new EventPage<>(rows, null);
         }
+        List<EventSummary> items = rows.subList(0, limit);
+        return new EventPage<>(items, encodeCursor(items.get(limit - 1)));
+    }
 
-        if (minDate != null && !minDate.isBlank()) {
-            LocalDateTime min = LocalDateTime.parse(minDate);
-            base = base.stream()
-                    .filter(e -> !e.getDate().isBefore(min))
-                    .collect(Collectors.toList());
+    /**
+     * Keyword search ranked by relevance (BM25 over title and description) rather than by date.
+     */
+    public List<EventSummary> searchByRelevance(String query, Integer size) {
+        int limit = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        List<Long> ranked = fullTextIndex.search(query, limit);
+        if (ranked.isEmpty()) return List.of();
+
+        Map<Long, EventSummary> byId = new HashMap<>();
+        repo.findSummaries(EventSpecifications.idIn(ranked), 0).forEach(e -> byId.put(e.getId(), e));
+        List<EventSummary> results = new ArrayList<>(ranked.size());
+        for (Long id : ranked) {
+            EventSummary event = byId.get(id);
+            if (event != null) results.add(event);
         }
+        return results;
+    }
 
-        if (maxDate != null && !maxDate.isBlank()) {
-            LocalDateTime max = LocalDateTime.parse(maxDate);
-            base = base.stream()
-                    .filter(e -> !e.getDate().isAfter(max))
-                    .collect(Collectors.toList());
+    private static LocalDateTime parseDate(String value) {
+        return value == null || value.isBlank() ? null : LocalDateTime.parse(value);
+    }
+
+    // Cursor = base64url("<date>|<id>") of the last row of the previous page
+    private static String encodeCursor(EventSummary last) {
+        String raw = last.getDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Specification<Event> decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
         }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return EventSpecifications.after(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
 
-        if (maxPrice != null) {
-            base = base.stream()
-                    .filter(e -> (e.getPrice() != null ? e.getPrice() : 0.0) <= maxPrice)
-                    .collect(Collectors.toList());
+    /**
+     * Reserves one seat. Throws {@link NoSuchElementException} for an unknown event and
+     * {@link IllegalStateException} when the event is full or already archived.
+     */
+    @Transactional
+    public void incrementParticipants(Long eventId) {
+        if (repo.reserveSeats(eventId, 1, LocalDateTime.now()) == 0) {
+            requireLive(eventId);
+            throw new IllegalStateException("Event is full");
         }
+        seatsChanged(eventId, 1);
+    }
 
-        return base;
+    /** Releases one seat; same exceptions as {@link #incrementParticipants(Long)} except for a full event. */
+    @Transactional
+    public void decrementParticipants(Long eventId) {
+        if (repo.releaseSeats(eventId, 1, LocalDateTime.now()) > 0) {
+            seatsChanged(eventId, -1);
+        } else {
+            // Nothing to release is not an error (the counter stays at 0), an unknown event is
+            requireLive(eventId);
+        }
     }
 
-    public void incrementParticipants(Long eventId) {
-        Event event = repo.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+    // Seat counters of archived events are frozen: the caller gets a conflict, not a missing event
+    private void requireLive(Long eventId) {
+        if (repo.existsById(eventId)) return;
+        if (archiveRepo.existsById(eventId)) {
+            throw new IllegalStateException(ARCHIVED);
+        }
+        throw new NoSuchElementException("Event not found");
+    }
 
-        int current = event.getCurrentParticipants() == null ? 0 : event.getCurrentParticipants();
-        int max = event.getMaxParticipants() == null ? 0 : event.getMaxParticipants();
+    /**
+     * Applies seat reservations (positive {@code seats}) and releases (negative) for many events at once.
+     * Changes for the same event are merged first, so each event costs exactly one conditional UPDATE
+     * and is applied entirely or not at all. A change whose dedupe key is already on record is a retry:
+     * it is reported as applied without being applied again, and the keys of the changes applied now
+     * are recorded in the same transaction. Refused changes leave no record, so they can be resent.
+     */
+    @Transactional
+    public List<SeatChangeResult> applySeatChanges(List<SeatChangeRequest> changes) {
+        Set<String> applied = new HashSet<>();
+        receiptRepo.findAllById(changes.stream()
+                        .map(SeatChangeRequest::getDedupeKey)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .forEach(r -> applied.add(r.getDedupeKey()));
 
-        if (max > 0 && current >= max) {
-            throw new RuntimeException("Event is full");
+        Map<Long, List<SeatChangeRequest>> byEvent = new LinkedHashMap<>();
+        List<SeatChangeResult> results = new ArrayList<>();
+        for (SeatChangeRequest change : changes) {
+            if (change.getEventId() == null) {
+                results.add(new SeatChangeResult(null, change.getSeats(), false, "eventId is required"));
+            } else if (change.getDedupeKey() != null && !applied.add(change.getDedupeKey())) {
+                results.add(new SeatChangeResult(change.getEventId(), change.getSeats(), true, ALREADY_APPLIED));
+            } else {
+                byEvent.computeIfAbsent(change.getEventId(), k -> new ArrayList<>()).add(change);
+            }
         }
 
-        event.setCurrentParticipants(current + 1);
-        repo.save(event);
+        LocalDateTime now = LocalDateTime.now();
+        byEvent.forEach((eventId, eventChanges) -> {
+            int seats = eventChanges.stream().mapToInt(SeatChangeRequest::getSeats).sum();
+            int updated;
+            if (seats > 0) {
+                updated = repo.reserveSeats(eventId, seats, now);
+            } else if (seats < 0) {
+                updated = repo.releaseSeats(eventId, -seats, now);
+            } else {
+                updated = repo.existsById(eventId) ? 1 : 0;
+            }
+
+            if (updated > 0) {
+                seatsChanged(eventId, seats);
+                for (SeatChangeRequest change : eventChanges) {
+                    if (change.getDedupeKey() != null) {
+                        receiptRepo.save(new SeatChangeReceipt(change.getDedupeKey(), eventId, change.getSeats(), now));
+                    }
+                }
+                results.add(new SeatChangeResult(eventId, seats, true, null));
+            } else if (!repo.existsById(eventId)) {
+                String error = archiveRepo.existsById(eventId) ? ARCHIVED : "Event not found";
+                results.add(new SeatChangeResult(eventId, seats, false, error));
+            } else if (seats > 0) {
+                results.add(new SeatChangeResult(eventId, seats, false, "Not enough places left"));
+            } else {
+                results.add(new SeatChangeResult(eventId, seats, false, "Cannot release more seats than reserved"));
+            }
+        });
+        return results;
     }
 
-    public void decrementParticipants(Long eventId) {
-        Event event = repo.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+    // A sender retries within minutes; receipts older than the retention can no longer match anything
+    @Scheduled(fixedDelayString = "${events.seat-receipts.purge-interval-ms:3600000}")
+    public void purgeSeatReceipts() {
+        receiptRepo.deleteAppliedBefore(LocalDateTime.now().minus(receiptRetention));
+    }
 
-        int current = event.getCurrentParticipants() == null ? 0 : event.getCurrentParticipants();
-        event.setCurrentParticipants(Math.max(0, current - 1));
-        repo.save(event);
+    // Seat UPDATEs bypass the entity listener, so derived state is told explicitly
+    private void seatsChanged(Long eventId, int seats) {
+        statsService.onSeatsChanged(eventId, seats);
+        detailCache.invalidate(eventId);
     }
 }
@@ -0,0 +1,222 @@
+package com.example.eventservice.service;
+
+import com.example.eventservice.dto.Suggestion;
+import com.example.eventservice.model.Event;
+import com.example.eventservice.model.EventChange;
+import com.example.eventservice.repository.EventRepository;
+import com.example.eventservice.util.TextNormalizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Prefix trie behind the search box autocomplete. Titles, categories and locations of
+ * active events are inserted accent-folded, once per word start ("Nuit du Jazz" is also
+ * reachable from "jazz"), with a reference count so a value disappears with its last event.
+ * Suggestions are ranked by that count, the values shared by the most active events first, ties
+ * in alphabetical order. Each node keeps the {@link #MAX_LIMIT} best values of its subtree,
+ * refreshed along the key path when a value is added or removed, so a lookup only walks the
+ * prefix whatever the trie size.
+ */
+@Service
+public class EventSuggestionIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final Comparator<Term> RANK = Comparator.comparingInt((Term t) -> -t.references)
+            .thenComparing(t -> t.display)
+            .thenComparing(t -> t.type);
+
+    private final EventRepository repo;
+
+    private final Node root = new Node();
+    private final Map<Long, Labels> labelsByEvent = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public EventSuggestionIndex(EventRepository repo) {
+        this.repo = repo;
+    }
+
+    /** At most {@code limit} (up to {@link #MAX_LIMIT}) values starting with a word prefixed by {@code prefix}, best first. */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = TextNormalizer.fold(prefix).trim();
+        if (key.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) return List.of();
+
+            List<Suggestion> found = new ArrayList<>();
+            for (Term term : node.top) {
+                if (found.size() == limit) break;
+                found.add(new Suggestion(term.type, term.display));
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<EventRepository.EventLabels> active = repo.findActiveLabels();
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terms.clear();
+            labelsByEvent.clear();
+            for (EventRepository.EventLabels l : active) {
+                link(l.getId(), new Labels(l.getTitle(), l.getCategory(), l.getLocation()), false);
+            }
+            // Once for the whole trie rather than along every inserted key
+            refreshAll(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // After commit: a rolled back write must not add or remove suggestions
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        Event event = change.getEvent();
+        if (event.getId() == null) return;
+
+        boolean active = change.getType() == EventChange.Type.SAVED && Boolean.TRUE.equals(event.getIsActive());
+        lock.writeLock().lock();
+        try {
+            unlink(event.getId());
+            if (active) {
+                link(event.getId(), new Labels(event.getTitle(), event.getCategory(), event.getLocation()), true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== internals (callers hold the write lock) =====
+
+    private void link(Long eventId, Labels labels, boolean refresh) {
+        labelsByEvent.put(eventId, labels);
+        labels.forEach((type, value) -> {
+            for (String key : wordStarts(value)) {
+                Node[] path = new Node[key.length() + 1];
+                path[0] = root;
+                for (int i = 0; i < key.length(); i++) {
+                    path[i + 1] = path[i].children.computeIfAbsent(key.charAt(i), c -> new Node());
+                }
+                path[key.length()].terms.computeIfAbsent(type + ":" + value, k -> new Term(type, value)).references++;
+                if (refresh) {
+                    for (int i = key.length(); i >= 0; i--) refresh(path[i]);
+                }
+            }
+        });
+    }
+
+    private void unlink(Long eventId) {
+        Labels labels = labelsByEvent.remove(eventId);
+        if (labels == null) return;
+        labels.forEach((type, value) -> {
+            for (String key : wordStarts(value)) {
+                remove(root, key, 0, type + ":" + value);
+            }
+        });
+    }
+
+    // Returns true when the child became empty and can be pruned
+    private boolean remove(Node node, String key, int depth, String termKey) {
+        if (depth == key.length()) {
+            Term term = node.terms.get(termKey);
+            if (term != null && --term.references == 0) {
+                node.terms.remove(termKey);
+            }
+        } else {
+            char c = key.charAt(depth);
+            Node child = node.children.get(c);
+            if (child != null && remove(child, key, depth + 1, termKey)) {
+                node.children.remove(c);
+            }
+        }
+        refresh(node);
+        return node.terms.isEmpty() && node.children.isEmpty();
+    }
+
+    private static void refreshAll(Node node) {
+        for (Node child : node.children.values()) refreshAll(child);
+        refresh(node);
+    }
+
+    // The node's best values: its own and its children's best, each value once with its highest count
+    private static void refresh(Node node) {
+        Map<String, Term> best = new HashMap<>();
+        for (Term term : node.terms.values()) best.merge(term.key, term, EventSuggestionIndex::moreReferenced);
+        for (Node child : node.children.values()) {
+            for (Term term : child.top) best.merge(term.key, term, EventSuggestionIndex::moreReferenced);
+        }
+        List<Term> top = new ArrayList<>(best.values());
+        top.sort(RANK);
+        node.top = top.size() > MAX_LIMIT ? new ArrayList<>(top.subList(0, MAX_LIMIT)) : top;
+    }
+
+    private static Term moreReferenced(Term a, Term b) {
+        return b.references > a.references ? b : a;
+    }
+
+    private static List<String> wordStarts(String value) {
+        String folded = TextNormalizer.fold(value).trim();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < folded.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(folded.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(folded.charAt(i - 1)));
+            if (wordStart) keys.add(folded.substring(i));
+        }
+        return keys;
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new TreeMap<>();
+        final Map<String, Term> terms = new LinkedHashMap<>(2);
+        List<Term> top = List.of();
+    }
+
+    private static final class Term {
+        final String type;
+        final String display;
+        final String key;
+        int references;
+
+        Term(String type, String display) {
+            this.type = type;
+            this.display = display;
+            this.key = type + ":" + display;
+        }
+    }
+
+    private static final class Labels {
+        final String title;
+        final String category;
+        final String location;
+
+        Labels(String title, String category, String location) {
+            this.title = title;
+            this.category = category;
+            this.location = location;
+        }
+
+        void forEach(BiConsumer<String, String> action) {
+            if (title != null && !title.isBlank()) action.accept(Suggestion.TITLE, title.trim());
+            if (category != null && !category.isBlank()) action.accept(Suggestion.CATEGORY, category.trim());
+            if (location != null && !location.isBlank()) action.accept(Suggestion.LOCATION, location.trim());
+        }
+    }
+}
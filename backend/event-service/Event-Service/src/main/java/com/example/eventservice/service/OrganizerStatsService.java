@@ -0,0 +1,275 @@
+package com.example.eventservice.service;
+
+import com.example.eventservice.model.Event;
+import com.example.eventservice.model.EventChange;
+import com.example.eventservice.repository.ArchivedEventRepository;
+import com.example.eventservice.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Running per-organizer aggregates behind {@code GET /api/events/organizer/{id}/stats}.
+ * Every event contributes once to its organizer's totals; writes adjust the contribution
+ * instead of rescanning the organizer's events. Archived events keep counting as past events.
+ * Changes are applied once their transaction has committed, so a rollback leaves the totals untouched.
+ * A periodic reconciliation rebuilds everything from both tables and logs any drift it had to correct.
+ */
+@Service
+public class OrganizerStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrganizerStatsService.class);
+    private static final double EPSILON = 1e-6;
+
+    private final EventRepository repo;
+    private final ArchivedEventRepository archiveRepo;
+
+    private Map<Long, Contribution> contributions = new HashMap<>();
+    private Map<Long, Totals> totals = new HashMap<>();
+    // Events still counted as upcoming, ordered by date, so the rollover to "past" only
+    // ever looks at the head of the set.
+    private NavigableSet<Contribution> upcoming = new TreeSet<>(Contribution.BY_DATE);
+
+    // Ids touched while a reconciliation is loading rows: their live contribution wins.
+    private boolean rebuilding;
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+
+    public OrganizerStatsService(EventRepository repo, ArchivedEventRepository archiveRepo) {
+        this.repo = repo;
+        this.archiveRepo = archiveRepo;
+    }
+
+    public synchronized Map<String, Object> getStats(Long organizerId) {
+        rollOver(LocalDateTime.now());
+        Totals t = totals.getOrDefault(organizerId, new Totals());
+
+        double averageAttendance = t.attendanceCount == 0 ? 0.0 : t.attendanceSum / t.attendanceCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalEvents", t.totalEvents);
+        stats.put("upcomingEvents", t.upcomingEvents);
+        stats.put("pastEvents", t.totalEvents - t.upcomingEvents);
+        stats.put("totalParticipants", (int) t.totalParticipants);
+        stats.put("totalRevenue", t.totalRevenue);
+        stats.put("averageAttendance", Math.round(averageAttendance));
+        return stats;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEventChange(EventChange change) {
+        Event event = change.getEvent();
+        if (event.getId() == null || change.getType() == EventChange.Type.ARCHIVED) return;
+        touched(event.getId());
+
+        unlink(contributions.remove(event.getId()));
+        if (change.getType() == EventChange.Type.SAVED) {
+            Contribution c = new Contribution(event, LocalDateTime.now());
+            contributions.put(c.eventId, c);
+            link(c);
+        }
+    }
+
+    /** Seat counters are changed by bulk UPDATEs, which bypass the entity listener. */
+    public void onSeatsChanged(Long eventId, int seats) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applySeats(eventId, seats);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applySeats(eventId, seats);
+            }
+        });
+    }
+
+    private synchronized void applySeats(Long eventId, int seats) {
+        touched(eventId);
+        Contribution c = contributions.get(eventId);
+        if (c == null) return;
+        unlink(c);
+        c.participants = Math.max(0, c.participants + seats);
+        link(c);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild(false);
+    }
+
+    @Scheduled(fixedDelayString = "${events.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${events.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        rebuild(true);
+    }
+
+    private void rebuild(boolean reportDrift) {
+        synchronized (this) {
+            rebuilding = true;
+            touchedDuringRebuild.clear();
+        }
+
+        // Hot table first: a row archived in between is then seen twice rather than missed
+        Map<Long, EventRepository.EventFigures> events = new HashMap<>();
+        repo.findAllFigures().forEach(e -> events.put(e.getId(), e));
+        archiveRepo.findAllFigures().forEach(a -> events.put(a.getId(), a));
+
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Contribution> freshContributions = new HashMap<>();
+            for (EventRepository.EventFigures event : events.values()) {
+                if (!touchedDuringRebuild.contains(event.getId())) {
+                    freshContributions.put(event.getId(), new Contribution(event.getId(), event.getOrganizerId(),
+                            event.getDate(), event.getMaxParticipants(), event.getPrice(),
+                            event.getCurrentParticipants(), now));
+                }
+            }
+            for (Long id : touchedDuringRebuild) {
+                Contribution live = contributions.get(id);
+                if (live != null) freshContributions.put(id, live);
+            }
+
+            Map<Long, Totals> previous = totals;
+            contributions = freshContributions;
+            totals = new HashMap<>();
+            upcoming = new TreeSet<>(Contribution.BY_DATE);
+            freshContributions.values().forEach(this::link);
+            rollOver(now);
+
+            if (reportDrift) {
+                reportDrift(previous, totals);
+            }
+            rebuilding = false;
+            touchedDuringRebuild.clear();
+        }
+    }
+
+    private void reportDrift(Map<Long, Totals> before, Map<Long, Totals> after) {
+        Set<Long> organizers = new HashSet<>(before.keySet());
+        organizers.addAll(after.keySet());
+        int drifted = 0;
+        for (Long organizerId : organizers) {
+            Totals was = before.getOrDefault(organizerId, new Totals());
+            Totals now = after.getOrDefault(organizerId, new Totals());
+            if (!was.sameAs(now)) {
+                drifted++;
+                log.warn("Organizer {} stats drifted: running={} rebuilt={}", organizerId, was, now);
+            }
+        }
+        if (drifted > 0) {
+            log.warn("Stats reconciliation corrected {} organizer(s) out of {}", drifted, organizers.size());
+        } else {
+            log.debug("Stats reconciliation: no drift across {} organizer(s)", organizers.size());
+        }
+    }
+
+    private void rollOver(LocalDateTime now) {
+        while (!upcoming.isEmpty() && !upcoming.first().date.isAfter(now)) {
+            Contribution c = upcoming.pollFirst();
+            c.upcoming = false;
+            totals.get(c.organizerId).upcomingEvents--;
+        }
+    }
+
+    private void touched(Long eventId) {
+        if (rebuilding) touchedDuringRebuild.add(eventId);
+    }
+
+    private void link(Contribution c) {
+        Totals t = totals.computeIfAbsent(c.organizerId, k -> new Totals());
+        t.totalEvents++;
+        t.totalParticipants += c.participants;
+        t.totalRevenue += c.participants * c.price;
+        if (c.maxParticipants > 0) {
+            t.attendanceSum += (double) c.participants / c.maxParticipants * 100;
+            t.attendanceCount++;
+        }
+        if (c.upcoming) {
+            t.upcomingEvents++;
+            upcoming.add(c);
+        }
+    }
+
+    private void unlink(Contribution c) {
+        if (c == null) return;
+        Totals t = totals.get(c.organizerId);
+        t.totalEvents--;
+        t.totalParticipants -= c.participants;
+        t.totalRevenue -= c.participants * c.price;
+        if (c.maxParticipants > 0) {
+            t.attendanceSum -= (double) c.participants / c.maxParticipants * 100;
+            t.attendanceCount--;
+        }
+        if (c.upcoming) {
+            t.upcomingEvents--;
+            upcoming.remove(c);
+        }
+        if (t.totalEvents == 0) {
+            totals.remove(c.organizerId);
+        }
+    }
+
+    private static final class Contribution {
+        static final Comparator<Contribution> BY_DATE =
+                Comparator.comparing((Contribution c) -> c.date).thenComparing(c -> c.eventId);
+
+        final Long eventId;
+        final Long organizerId;
+        final LocalDateTime date;
+        final int maxParticipants;
+        final double price;
+        int participants;
+        boolean upcoming;
+
+        Contribution(Event event, LocalDateTime now) {
+            this(event.getId(), event.getOrganizerId(), event.getDate(), event.getMaxParticipants(),
+                    event.getPrice(), event.getCurrentParticipants(), now);
+        }
+
+        Contribution(Long eventId, Long organizerId, LocalDateTime date, Integer maxParticipants,
+                     Double price, Integer participants, LocalDateTime now) {
+            this.eventId = eventId;
+            this.organizerId = organizerId;
+            this.date = date;
+            this.maxParticipants = maxParticipants != null ? maxParticipants : 0;
+            this.price = price != null ? price : 0.0;
+            this.participants = participants != null ? participants : 0;
+            this.upcoming = date != null && date.isAfter(now);
+        }
+    }
+
+    private static final class Totals {
+        long totalEvents;
+        long upcomingEvents;
+        long totalParticipants;
+        double totalRevenue;
+        double attendanceSum;
+        long attendanceCount;
+
+        boolean sameAs(Totals o) {
+            return totalEvents == o.totalEvents
+                    && upcomingEvents == o.upcomingEvents
+                    && totalParticipants == o.totalParticipants
+                    && attendanceCount == o.attendanceCount
+                    && Math.abs(totalRevenue - o.totalRevenue) < EPSILON
+                    && Math.abs(attendanceSum - o.attendanceSum) < EPSILON;
+        }
+
+        @Override
+        public String toString() {
+            return "{events=" + totalEvents + ", upcoming=" + upcomingEvents
+                    + ", participants=" + totalParticipants + ", revenue=" + totalRevenue
+                    + ", attendanceSum=" + attendanceSum + "/" + attendanceCount + "}";
+        }
+    }
+}
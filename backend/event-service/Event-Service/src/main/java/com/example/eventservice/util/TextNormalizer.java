@@ -0,0 +1,52 @@
+package com.example.eventservice.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Shared text folding for search: lower case, accents stripped ("Soirée" -> "soiree"),
+ * French ligatures expanded, so typed queries match content with or without accents.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "le", "la", "les", "un", "une", "des", "du", "de", "et", "ou", "en", "au", "aux",
+            "pour", "par", "sur", "dans", "avec", "ce", "ces", "est", "sont", "qui", "que",
+            "the", "and", "of", "to", "in", "for", "on", "with"
+    );
+
+    private TextNormalizer() {
+    }
+
+    public static String fold(String value) {
+        if (value == null) return "";
+        String lower = value.toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+        return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /** Folded, stop-word free terms, with a light plural reduction ("concerts" -> "concert"). */
+    public static List<String> terms(String value) {
+        List<String> terms = new ArrayList<>();
+        for (String token : NON_WORD.split(fold(value))) {
+            if (token.length() < 2 || STOP_WORDS.contains(token)) continue;
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    private static String stem(String token) {
+        if (token.length() > 3 && (token.endsWith("s") || token.endsWith("x"))) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.eventservice.service;
+
+import com.example.eventservice.model.Event;
+import com.example.eventservice.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "eureka.client.enabled=false"
+})
+class EventServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 4000;
+    private static final int CAPACITY = 1500;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository repo;
+
+    @Test
+    void concurrentIncrementsNeverExceedCapacity() throws Exception {
+        Long eventId = newEvent(CAPACITY).getId();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        hammer(() -> {
+            try {
+                eventService.incrementParticipants(eventId);
+                accepted.incrementAndGet();
+            } catch (RuntimeException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(CAPACITY, accepted.get());
+        assertEquals(ATTEMPTS - CAPACITY, rejected.get());
+        assertEquals(CAPACITY, repo.findById(eventId).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void concurrentIncrementsOnUnlimitedEventAreAllCounted() throws Exception {
+        Long eventId = newEvent(null).getId();
+
+        hammer(() -> eventService.incrementParticipants(eventId));
+
+        assertEquals(ATTEMPTS, repo.findById(eventId).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void concurrentDecrementsStopAtZero() throws Exception {
+        Event event = newEvent(CAPACITY);
+        event.setCurrentParticipants(CAPACITY);
+        Long eventId = repo.save(event).getId();
+
+        hammer(() -> eventService.decrementParticipants(eventId));
+
+        assertEquals(0, repo.findById(eventId).orElseThrow().getCurrentParticipants());
+    }
+
+    private Event newEvent(Integer capacity) {
+        Event event = new Event();
+        event.setTitle("Stress test");
+        event.setDate(LocalDateTime.now().plusDays(7));
+        event.setOrganizerId(1L);
+        event.setMaxParticipants(capacity);
+        return repo.save(event);
+    }
+
+    private void hammer(Runnable call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    call.run();
+                } catch (RuntimeException ignored) {
+                    // counted by the caller when relevant
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+}
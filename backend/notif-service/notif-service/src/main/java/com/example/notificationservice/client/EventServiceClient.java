@@ -0,0 +1,60 @@
+package com.example.notificationservice.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lists upcoming active events from event-service, one keyset page at a time.
+ */
+@Component
+public class EventServiceClient {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int PAGE_SIZE = 100;
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public EventServiceClient(RestTemplateBuilder builder,
+                              @Value("${event-service.url:http://localhost:8082}") String baseUrl) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+    }
+
+    /** Events from {@code from} on, by (date, id); pass the page's cursor back for the next one. Failures are thrown. */
+    public EventPage getUpcomingEvents(LocalDateTime from, String cursor) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/api/events")
+                .queryParam("minDate", from)
+                .queryParam("size", PAGE_SIZE);
+        if (cursor != null) uri.queryParam("cursor", cursor);
+        ResponseEntity<EventInfo[]> response = restTemplate.getForEntity(uri.build().toUri(), EventInfo[].class);
+
+        EventPage page = new EventPage();
+        page.events = response.getBody() == null ? List.of() : Arrays.asList(response.getBody());
+        page.nextCursor = response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+        return page;
+    }
+
+    public static class EventPage {
+        public List<EventInfo> events;
+        public String nextCursor;
+    }
+
+    public static class EventInfo {
+        public Long id;
+        public String title;
+        public LocalDateTime date;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.notificationservice.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pages through the confirmed attendees of an event on registration-service, by ascending user id.
+ */
+@Component
+public class RegistrationServiceClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public RegistrationServiceClient(RestTemplateBuilder builder,
+                                     @Value("${registration-service.url:http://localhost:8084}") String baseUrl) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+    }
+
+    /** Failures are thrown, the caller decides whether to retry. */
+    public AttendeePage getAttendeeIds(Long eventId, long after, int limit) {
+        AttendeePage page = restTemplate.getForObject(
+                baseUrl + "/api/registrations/event/{eventId}/attendee-ids?after={after}&limit={limit}",
+                AttendeePage.class, eventId, after, limit);
+        return page == null ? new AttendeePage() : page;
+    }
+
+    public static class AttendeePage {
+        public List<Long> userIds = List.of();
+        public Long nextCursor;
+    }
+}
@@ -1,10 +1,20 @@
 package com.example.notificationservice.controller;
 
+import com.example.notificationservice.dto.FanOutJobStatus;
+import com.example.notificationservice.dto.FanOutRequest;
+import com.example.notificationservice.dto.NotificationPage;
 import com.example.notificationservice.model.Notification;
+import com.example.notificationservice.service.NotificationPushService;
 import com.example.notificationservice.service.NotificationService;
+import com.example.notificationservice.service.ReminderFanOutService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -14,19 +24,47 @@ import java.util.HashMap;
 @CrossOrigin(origins = "*")
 public class NotificationController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ReminderFanOutService reminderFanOutService;
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
     @PostMapping
     public ResponseEntity<Notification> createNotification(@RequestBody Notification notification) {
         Notification saved = notificationService.createNotification(notification);
         return ResponseEntity.ok(saved);
     }
 
+    // Historique paginé : renvoyer X-Next-Cursor en ?cursor= pour la page suivante
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getUserNotifications(userId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<Notification>> getUserNotifications(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        NotificationPage page;
+        try {
+            page = notificationService.getUserNotifications(userId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    // Flux SSE : nombre de non lues à la connexion, puis chaque nouvelle notification
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@PathVariable Long userId) {
+        return notificationPushService.subscribe(userId, notificationService.getUnreadCount(userId));
     }
 
     @GetMapping("/user/{userId}/unread")
@@ -41,6 +79,44 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    // Lectures en masse
+    @PutMapping("/user/{userId}/read-all")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@PathVariable Long userId) {
+        return ResponseEntity.ok(readResponse(userId, notificationService.markAllAsRead(userId)));
+    }
+
+    // Jusqu'à une notification (?id=) ou une date (?createdAt=), incluses
+    @PutMapping("/user/{userId}/read-up-to")
+    public ResponseEntity<Map<String, Object>> markAsReadUpTo(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAt) {
+        if ((id == null) == (createdAt == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int updated = id != null
+                ? notificationService.markAsReadUpToId(userId, id)
+                : notificationService.markAsReadUpTo(userId, createdAt);
+        return ResponseEntity.ok(readResponse(userId, updated));
+    }
+
+    @PutMapping("/user/{userId}/read")
+    public ResponseEntity<Map<String, Object>> markAsRead(@PathVariable Long userId, @RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(readResponse(userId, notificationService.markAsRead(userId, ids)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private Map<String, Object> readResponse(Long userId, int updated) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
+        response.put("updated", updated);
+        response.put("unreadCount", notificationService.getUnreadCount(userId));
+        return response;
+    }
+
     @GetMapping("/user/{userId}/unread-count")
     public ResponseEntity<Map<String, Object>> getUnreadCount(@PathVariable Long userId) {
         Long count = notificationService.getUnreadCount(userId);
@@ -68,4 +144,27 @@ public class NotificationController {
         Notification notification = notificationService.sendEventReminder(userId, eventId, eventTitle);
         return ResponseEntity.ok(notification);
     }
-}
\ No newline at end of file
+
+    // Rappel pour tout un événement : les destinataires donnés, ou tous les inscrits confirmés
+    @PostMapping("/event-reminder/fan-out")
+    public ResponseEntity<FanOutJobStatus> fanOutEventReminder(@RequestBody FanOutRequest request) {
+        try {
+            FanOutJobStatus job = request.userIds == null
+                    ? reminderFanOutService.remindAttendees(request.eventId, request.eventTitle)
+                    : reminderFanOutService.remindUsers(request.eventId, request.eventTitle, request.userIds);
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/notifications/fan-out/" + job.getJobId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/fan-out/{jobId}")
+    public ResponseEntity<FanOutJobStatus> getFanOutJob(@PathVariable String jobId) {
+        return reminderFanOutService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
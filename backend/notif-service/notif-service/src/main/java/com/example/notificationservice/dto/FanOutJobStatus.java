@@ -0,0 +1,45 @@
+package com.example.notificationservice.dto;
+
+import java.time.LocalDateTime;
+
+public class FanOutJobStatus {
+    private final String jobId;
+    private final Long eventId;
+    private final String status; // PENDING, RUNNING, DONE, FAILED
+    private final Long recipients; // null while paging through registrations
+    private final long delivered;
+    private final long chunks;
+    private final long elapsedMs;
+    private final long rowsPerSecond;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime completedAt;
+    private final String message;
+
+    public FanOutJobStatus(String jobId, Long eventId, String status, Long recipients, long delivered, long chunks,
+                           long elapsedMs, long rowsPerSecond, LocalDateTime createdAt, LocalDateTime completedAt,
+                           String message) {
+        this.jobId = jobId;
+        this.eventId = eventId;
+        this.status = status;
+        this.recipients = recipients;
+        this.delivered = delivered;
+        this.chunks = chunks;
+        this.elapsedMs = elapsedMs;
+        this.rowsPerSecond = rowsPerSecond;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.message = message;
+    }
+
+    public String getJobId() { return jobId; }
+    public Long getEventId() { return eventId; }
+    public String getStatus() { return status; }
+    public Long getRecipients() { return recipients; }
+    public long getDelivered() { return delivered; }
+    public long getChunks() { return chunks; }
+    public long getElapsedMs() { return elapsedMs; }
+    public long getRowsPerSecond() { return rowsPerSecond; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,10 @@
+package com.example.notificationservice.dto;
+
+import java.util.List;
+
+// Recipients of a fan-out: the given user ids, or every confirmed attendee of the event when omitted
+public class FanOutRequest {
+    public Long eventId;
+    public String eventTitle;
+    public List<Long> userIds;
+}
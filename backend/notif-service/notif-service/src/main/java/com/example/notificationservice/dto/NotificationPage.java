@@ -0,0 +1,21 @@
+package com.example.notificationservice.dto;
+
+import com.example.notificationservice.model.Notification;
+
+import java.util.List;
+
+/**
+ * One keyset page of a user's notifications. {@code nextCursor} is null on the last page.
+ */
+public class NotificationPage {
+    private final List<Notification> items;
+    private final String nextCursor;
+
+    public NotificationPage(List<Notification> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Notification> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
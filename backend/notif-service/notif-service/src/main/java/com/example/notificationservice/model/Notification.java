@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Non lues d'un utilisateur, mises à jour en masse
+        @Index(name = "idx_notifications_user_read_created", columnList = "userId, isRead, createdAt"),
+        // Historique paginé par (createdAt, id)
+        @Index(name = "idx_notifications_user_created", columnList = "userId, createdAt, id")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,78 @@
+package com.example.notificationservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Rappel d'événement en attente ; la ligne est supprimée une fois le rappel envoyé à tous
+@Entity
+@Table(name = "scheduled_reminders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_scheduled_reminders_event_offset", columnNames = {"eventId", "offsetMinutes"})
+})
+public class ScheduledReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private String eventTitle;
+
+    @Column(nullable = false)
+    private LocalDateTime eventDate;
+
+    // Délai avant l'événement
+    @Column(nullable = false)
+    private Long offsetMinutes;
+
+    @Column(nullable = false)
+    private LocalDateTime fireAt;
+
+    // Dernier userId notifié : un nouvel essai reprend après lui, sans doublons
+    @Column(nullable = false)
+    private Long deliveredUpTo = 0L;
+
+    // Envois interrompus, pour espacer les nouveaux essais
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // Constructeurs
+    public ScheduledReminder() {
+    }
+
+    public ScheduledReminder(Long eventId, String eventTitle, LocalDateTime eventDate, Long offsetMinutes) {
+        this.eventId = eventId;
+        this.offsetMinutes = offsetMinutes;
+        reschedule(eventTitle, eventDate);
+    }
+
+    public void reschedule(String eventTitle, LocalDateTime eventDate) {
+        this.eventTitle = eventTitle;
+        this.eventDate = eventDate;
+        this.fireAt = eventDate.minusMinutes(offsetMinutes);
+    }
+
+    public void retryAt(LocalDateTime fireAt) {
+        this.attempts++;
+        this.fireAt = fireAt;
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public String getEventTitle() { return eventTitle; }
+    public void setEventTitle(String eventTitle) { this.eventTitle = eventTitle; }
+    public LocalDateTime getEventDate() { return eventDate; }
+    public void setEventDate(LocalDateTime eventDate) { this.eventDate = eventDate; }
+    public Long getOffsetMinutes() { return offsetMinutes; }
+    public void setOffsetMinutes(Long offsetMinutes) { this.offsetMinutes = offsetMinutes; }
+    public LocalDateTime getFireAt() { return fireAt; }
+    public void setFireAt(LocalDateTime fireAt) { this.fireAt = fireAt; }
+    public Long getDeliveredUpTo() { return deliveredUpTo; }
+    public void setDeliveredUpTo(Long deliveredUpTo) { this.deliveredUpTo = deliveredUpTo; }
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+}
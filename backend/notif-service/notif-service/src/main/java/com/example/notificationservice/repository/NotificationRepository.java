@@ -1,11 +1,79 @@
 package com.example.notificationservice.repository;
 
 import com.example.notificationservice.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Notification> findByUserIdAndIsReadFalse(Long userId);
     Long countByUserIdAndIsReadFalse(Long userId);
-}
\ No newline at end of file
+
+    // ===== history, newest first, keyset on (createdAt, id) =====
+
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findLatest(@Param("userId") Long userId, Pageable page);
+
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findOlder(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id, Pageable page);
+
+    // ===== set-based reads: each returns how many notifications went from unread to read =====
+
+    @Query("SELECT n.userId FROM Notification n WHERE n.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markRead(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false AND n.id <= :id")
+    int markReadUpToId(@Param("userId") Long userId, @Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true "
+            + "WHERE n.userId = :userId AND n.isRead = false AND n.createdAt <= :createdAt")
+    int markReadUpTo(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt);
+
+    // Scoped to the user, so ids of someone else's notifications are ignored
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false AND n.id IN :ids")
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Recount of every user's unread notifications, for reconciling the in-memory counters
+    @Query("SELECT new com.example.notificationservice.repository.NotificationRepository$UnreadCount("
+            + "n.userId, COUNT(n)) FROM Notification n WHERE n.isRead = false GROUP BY n.userId")
+    List<UnreadCount> countUnreadGroupedByUser();
+
+    final class UnreadCount {
+        private final Long userId;
+        private final long unread;
+
+        public UnreadCount(Long userId, long unread) {
+            this.userId = userId;
+            this.unread = unread;
+        }
+
+        public Long getUserId() { return userId; }
+        public long getUnread() { return unread; }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.notificationservice.repository;
+
+import com.example.notificationservice.model.ScheduledReminder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ScheduledReminderRepository extends JpaRepository<ScheduledReminder, Long> {
+    // Keyset pages for reloading the wheel
+    List<ScheduledReminder> findByIdGreaterThanOrderByIdAsc(Long id, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScheduledReminder r SET r.eventTitle = :title, r.eventDate = :eventDate, r.fireAt = :fireAt "
+            + "WHERE r.id = :id")
+    int reschedule(@Param("id") Long id, @Param("title") String title,
+                   @Param("eventDate") LocalDateTime eventDate, @Param("fireAt") LocalDateTime fireAt);
+
+    // Joins the fan-out chunk's transaction, so the cursor commits with the chunk's rows
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScheduledReminder r SET r.deliveredUpTo = :userId WHERE r.id = :id")
+    int recordProgress(@Param("id") Long id, @Param("userId") Long userId);
+}
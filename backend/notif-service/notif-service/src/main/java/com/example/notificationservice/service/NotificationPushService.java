@@ -0,0 +1,212 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.Notification;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events to connected users. Each connection has a bounded buffer drained by a
+ * small shared pool, at most one task per connection at a time, so publishing never waits on a
+ * client. A connection whose buffer overflows is a slow consumer and is closed; the browser's
+ * EventSource reconnects and reloads what it missed. Events are serialized once whatever the
+ * number of connections. Subscribers live in this instance only.
+ */
+@Service
+public class NotificationPushService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPushService.class);
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_COUNT_EVENT = "unread-count";
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final ExecutorService senders;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public NotificationPushService(ObjectMapper objectMapper,
+                                   @Value("${notifications.push.timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${notifications.push.buffer-size:64}") int bufferSize,
+                                   @Value("${notifications.push.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                   @Value("${notifications.push.threads:4}") int threads) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        AtomicInteger count = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "notification-push-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(s -> s.close(null)));
+        senders.shutdownNow();
+    }
+
+    /** Opens a stream for the user, starting with the current unread count. */
+    public SseEmitter subscribe(Long userId, long unreadCount) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> subscriber.close(null));
+        subscriber.emitter.onTimeout(() -> subscriber.close(null));
+        subscriber.emitter.onError(e -> subscriber.close(null));
+
+        List<Subscriber> connections = subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> current = list == null ? new CopyOnWriteArrayList<>() : list;
+            current.add(subscriber);
+            return current;
+        });
+        // Over the limit, the oldest connections go first, e.g. tabs left open
+        int excess = connections.size() - maxConnectionsPerUser;
+        for (Subscriber old : connections) {
+            if (excess-- <= 0) break;
+            old.close(null);
+        }
+        subscriber.offer(event(UNREAD_COUNT_EVENT, Map.of("userId", userId, "unreadCount", unreadCount)));
+        return subscriber.emitter;
+    }
+
+    public boolean isConnected(Long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public void publish(Notification notification) {
+        if (notification.getUserId() == null || !isConnected(notification.getUserId())) return;
+        publish(notification.getUserId(), event(NOTIFICATION_EVENT, notification));
+    }
+
+    public void publishUnreadCount(Long userId, long unreadCount) {
+        if (!isConnected(userId)) return;
+        publish(userId, event(UNREAD_COUNT_EVENT, Map.of("userId", userId, "unreadCount", unreadCount)));
+    }
+
+    /** Keeps idle streams open through proxies and finds connections that went away. */
+    @Scheduled(fixedDelayString = "${notifications.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(list -> list.forEach(s -> s.offer(ping)));
+    }
+
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void publish(Long userId, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (event == null) return;
+        List<Subscriber> connections = subscribers.get(userId);
+        if (connections != null) connections.forEach(s -> s.offer(event));
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, Object data) {
+        try {
+            return SseEmitter.event().name(name).data(objectMapper.writeValueAsString(data)).build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        volatile Throwable failure;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed) return;
+            if (!buffer.offer(event)) {
+                log.info("Closing slow notification stream of user {}", userId);
+                close(null);
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!draining.compareAndSet(false, true)) return;
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                failure = e;
+                closed = true;
+                remove(this);
+            }
+            draining.set(false);
+            if (closed) {
+                if (draining.compareAndSet(false, true)) complete();
+            } else if (!buffer.isEmpty()) {
+                // Offered after the last poll
+                schedule();
+            }
+        }
+
+        void close(Throwable cause) {
+            if (closed) return;
+            failure = cause;
+            closed = true;
+            remove(this);
+            buffer.clear();
+            // Only the holder of the drain flag touches the emitter: a send stuck on a client
+            // that stopped reading holds its lock, and the caller must not wait for it. The
+            // drain completes the emitter itself once that send returns.
+            if (draining.compareAndSet(false, true)) complete();
+        }
+
+        private void complete() {
+            try {
+                if (failure == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(failure);
+                }
+            } catch (RuntimeException ignored) {
+                // Already completed by the container
+            }
+        }
+    }
+}
@@ -1,23 +1,59 @@
 package com.example.notificationservice.service;
 
+import com.example.notificationservice.dto.NotificationPage;
 import com.example.notificationservice.model.Notification;
 import com.example.notificationservice.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 
 @Service
 public class NotificationService {
 
+    static final String REMINDER = "REMINDER";
+    static final String REMINDER_TITLE = "Rappel d'événement";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_IDS_PER_UPDATE = 1000;
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
     public Notification createNotification(Notification notification) {
-        return notificationRepository.save(notification);
+        return deliver(notification);
     }
 
-    public List<Notification> getUserNotifications(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    /**
+     * Une page de l'historique, des plus récentes aux plus anciennes, paginée par (createdAt, id).
+     * {@code cursor} est le {@code nextCursor} de la page précédente.
+     */
+    public NotificationPage getUserNotifications(Long userId, String cursor, Integer size) {
+        int limit = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        // Une ligne de plus indique s'il y a une page suivante
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepository.findLatest(userId, page);
+        } else {
+            Cursor after = decodeCursor(cursor);
+            rows = notificationRepository.findOlder(userId, after.createdAt, after.id, page);
+        }
+        if (rows.size() <= limit) {
+            return new NotificationPage(rows, null);
+        }
+        List<Notification> items = rows.subList(0, limit);
+        return new NotificationPage(items, encodeCursor(items.get(limit - 1)));
     }
 
     public List<Notification> getUnreadNotifications(Long userId) {
@@ -25,14 +61,40 @@ public class NotificationService {
     }
 
     public void markAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
+        Long userId = notificationRepository.findUserIdById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification non trouvée"));
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+        unreadCounters.read(userId, notificationRepository.markRead(notificationId));
+    }
+
+    // Lectures en masse : une seule requête UPDATE chacune, renvoient le nombre de notifications lues
+    public int markAllAsRead(Long userId) {
+        return read(userId, notificationRepository.markAllRead(userId));
+    }
+
+    public int markAsReadUpToId(Long userId, Long notificationId) {
+        return read(userId, notificationRepository.markReadUpToId(userId, notificationId));
+    }
+
+    public int markAsReadUpTo(Long userId, LocalDateTime createdAt) {
+        return read(userId, notificationRepository.markReadUpTo(userId, createdAt));
+    }
+
+    public int markAsRead(Long userId, Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) return 0;
+        if (notificationIds.size() > MAX_IDS_PER_UPDATE) {
+            throw new IllegalArgumentException("Au plus " + MAX_IDS_PER_UPDATE + " notifications à la fois");
+        }
+        return read(userId, notificationRepository.markReadByIds(userId, notificationIds));
     }
 
+    private int read(Long userId, int updated) {
+        unreadCounters.read(userId, updated);
+        return updated;
+    }
+
+    // Depuis la mémoire, la base n'est lue qu'au premier appel pour l'utilisateur
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounters.get(userId);
     }
 
     // Méthodes pour les types de notifications spécifiques
@@ -44,18 +106,56 @@ public class NotificationService {
                 "CONFIRMATION",
                 eventId
         );
-        return notificationRepository.save(notification);
+        return deliver(notification);
     }
 
     public Notification sendEventReminder(Long userId, Long eventId, String eventTitle) {
         Notification notification = new Notification(
                 userId,
-                "Rappel d'événement",
-                "N'oubliez pas : l'événement \"" + eventTitle + "\" approche!",
-                "REMINDER",
+                REMINDER_TITLE,
+                reminderMessage(eventTitle),
+                REMINDER,
                 eventId
         );
-        return notificationRepository.save(notification);
+        return deliver(notification);
+    }
+
+    // Enregistrée puis poussée aux connexions ouvertes de l'utilisateur
+    private Notification deliver(Notification notification) {
+        Notification saved = notificationRepository.save(notification);
+        notificationPushService.publish(saved);
+        if (!Boolean.TRUE.equals(saved.getIsRead())) unreadCounters.added(saved.getUserId(), 1);
+        return saved;
+    }
+
+    static String reminderMessage(String eventTitle) {
+        return "N'oubliez pas : l'événement \"" + eventTitle + "\" approche!";
+    }
+
+    // Curseur = base64url("<createdAt>|<id>") de la dernière notification de la page précédente
+    private static String encodeCursor(Notification last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+    }
+
+    private static final class Cursor {
+        final LocalDateTime createdAt;
+        final Long id;
+
+        Cursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
     }
 }
 
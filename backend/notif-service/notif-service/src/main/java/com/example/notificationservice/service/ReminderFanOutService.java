@@ -0,0 +1,252 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.client.RegistrationServiceClient;
+import com.example.notificationservice.dto.FanOutJobStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Event reminders for many users at once. The title and message are rendered once per job and
+ * the rows are written by a background worker with plain JDBC batches of {@code chunk-size}
+ * inserts, one transaction per chunk. Recipients are either given up front or read page by page
+ * from registration-service. Jobs and their progress live in memory.
+ */
+@Service
+public class ReminderFanOutService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderFanOutService.class);
+
+    static final String PENDING = "PENDING";
+    static final String RUNNING = "RUNNING";
+    static final String DONE = "DONE";
+    static final String FAILED = "FAILED";
+
+    private static final String INSERT = "INSERT INTO notifications "
+            + "(user_id, title, message, type, created_at, is_read, event_id) VALUES (?, ?, ?, ?, ?, FALSE, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RegistrationServiceClient registrationServiceClient;
+    private final UnreadCounters unreadCounters;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final long ttlMillis;
+    private final ExecutorService workers;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ReminderFanOutService(JdbcTemplate jdbcTemplate,
+                                 RegistrationServiceClient registrationServiceClient,
+                                 UnreadCounters unreadCounters,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${notifications.fan-out.chunk-size:1000}") int chunkSize,
+                                 @Value("${notifications.fan-out.ttl-ms:3600000}") long ttlMillis,
+                                 @Value("${notifications.fan-out.threads:2}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registrationServiceClient = registrationServiceClient;
+        this.unreadCounters = unreadCounters;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.ttlMillis = ttlMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "reminder-fan-out-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** Reminds each of {@code userIds} once, duplicates are dropped. */
+    public FanOutJobStatus remindUsers(Long eventId, String eventTitle, Collection<Long> userIds) {
+        long[] recipients = new LinkedHashSet<>(userIds).stream()
+                .filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+        return submit(eventId, eventTitle, (long) recipients.length, last -> { }, status -> { }, new Recipients() {
+            int next;
+
+            @Override
+            public long[] next(int max) {
+                int end = Math.min(recipients.length, next + max);
+                long[] chunk = Arrays.copyOfRange(recipients, next, end);
+                next = end;
+                return chunk;
+            }
+        });
+    }
+
+    /** Reminds every confirmed attendee of the event, as registration-service lists them. */
+    public FanOutJobStatus remindAttendees(Long eventId, String eventTitle) {
+        return remindAttendees(eventId, eventTitle, 0L, last -> { }, status -> { });
+    }
+
+    /**
+     * Same, for the attendees with a user id above {@code after}. {@code onChunk} gets the last
+     * user id of each chunk inside the chunk's transaction, so a cursor saved there commits with
+     * the rows; {@code onFinish} is called from the worker once the job is DONE or FAILED.
+     */
+    public FanOutJobStatus remindAttendees(Long eventId, String eventTitle, long after,
+                                           LongConsumer onChunk, Consumer<FanOutJobStatus> onFinish) {
+        return submit(eventId, eventTitle, null, onChunk, onFinish, new Recipients() {
+            Long cursor = after;
+
+            @Override
+            public long[] next(int max) {
+                if (cursor == null) return new long[0];
+                RegistrationServiceClient.AttendeePage page = registrationServiceClient.getAttendeeIds(eventId, cursor, max);
+                cursor = page.nextCursor;
+                return page.userIds.stream().mapToLong(Long::longValue).toArray();
+            }
+        });
+    }
+
+    public Optional<FanOutJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::snapshot);
+    }
+
+    private FanOutJobStatus submit(Long eventId, String eventTitle, Long total, LongConsumer onChunk,
+                                   Consumer<FanOutJobStatus> onFinish, Recipients recipients) {
+        if (eventId == null || eventTitle == null || eventTitle.isBlank()) {
+            throw new IllegalArgumentException("eventId et eventTitle sont requis");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), eventId, total, recipients, onChunk, onFinish,
+                NotificationService.REMINDER_TITLE, NotificationService.reminderMessage(eventTitle));
+        jobs.put(job.id, job);
+        workers.execute(() -> run(job));
+        return job.snapshot();
+    }
+
+    private void run(Job job) {
+        job.startedNanos = System.nanoTime();
+        job.status = RUNNING;
+        try {
+            long[] chunk;
+            while ((chunk = job.recipients.next(chunkSize)).length > 0) {
+                insert(job, chunk);
+                job.delivered += chunk.length;
+                job.chunks++;
+            }
+            job.finish(DONE, null);
+            FanOutJobStatus done = job.snapshot();
+            log.info("Reminder fan-out {} for event {}: {} notification(s) in {} ms ({} rows/s)",
+                    job.id, job.eventId, done.getDelivered(), done.getElapsedMs(), done.getRowsPerSecond());
+        } catch (RuntimeException e) {
+            log.warn("Reminder fan-out {} for event {} stopped after {} notification(s): {}",
+                    job.id, job.eventId, job.delivered, e.getMessage());
+            job.finish(FAILED, "Envoi interrompu");
+        }
+        try {
+            job.onFinish.accept(job.snapshot());
+        } catch (RuntimeException e) {
+            log.warn("Reminder fan-out {} completion callback failed: {}", job.id, e.getMessage());
+        }
+    }
+
+    private void insert(Job job, long[] userIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, userIds[i]);
+                    ps.setString(2, job.title);
+                    ps.setString(3, job.message);
+                    ps.setString(4, NotificationService.REMINDER);
+                    ps.setTimestamp(5, now);
+                    ps.setLong(6, job.eventId);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return userIds.length;
+                }
+            });
+            job.onChunk.accept(userIds[userIds.length - 1]);
+        });
+        // Rows are written without reading their ids back, so connected users get their new
+        // unread count rather than a copy without id, and fetch the rows themselves
+        for (long userId : userIds) {
+            unreadCounters.added(userId, 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.fan-out.purge-interval-ms:600000}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(ttlMillis * 1_000_000);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    // Hands out the next recipients, an empty array once there are none left
+    private interface Recipients {
+        long[] next(int max);
+    }
+
+    private static final class Job {
+        final String id;
+        final Long eventId;
+        final Long total;
+        final Recipients recipients;
+        final LongConsumer onChunk;
+        final Consumer<FanOutJobStatus> onFinish;
+        final String title;
+        final String message;
+        final LocalDateTime createdAt = LocalDateTime.now();
+
+        volatile String status = PENDING;
+        volatile long delivered;
+        volatile long chunks;
+        volatile long startedNanos;
+        volatile long finishedNanos;
+        volatile LocalDateTime completedAt;
+        volatile String failure;
+
+        Job(String id, Long eventId, Long total, Recipients recipients, LongConsumer onChunk,
+            Consumer<FanOutJobStatus> onFinish, String title, String message) {
+            this.id = id;
+            this.eventId = eventId;
+            this.total = total;
+            this.recipients = recipients;
+            this.onChunk = onChunk;
+            this.onFinish = onFinish;
+            this.title = title;
+            this.message = message;
+        }
+
+        void finish(String outcome, String reason) {
+            finishedNanos = System.nanoTime();
+            completedAt = LocalDateTime.now();
+            failure = reason;
+            status = outcome;
+        }
+
+        FanOutJobStatus snapshot() {
+            long started = startedNanos;
+            long elapsedNanos = started == 0 ? 0 : (finishedNanos != 0 ? finishedNanos : System.nanoTime()) - started;
+            long rate = elapsedNanos == 0 ? 0 : delivered * 1_000_000_000L / elapsedNanos;
+            return new FanOutJobStatus(id, eventId, status, total, delivered, chunks,
+                    elapsedNanos / 1_000_000, rate, createdAt, completedAt, failure);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.client.EventServiceClient;
+import com.example.notificationservice.dto.FanOutJobStatus;
+import com.example.notificationservice.model.ScheduledReminder;
+import com.example.notificationservice.repository.ScheduledReminderRepository;
+import com.example.notificationservice.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Automatic event reminders, {@code notifications.reminders.offsets} before each upcoming event.
+ * Event dates are read from event-service every {@code sync-interval-ms}; each (event, offset)
+ * pair is a row of {@code scheduled_reminders} and an entry of an in-memory hierarchical timing
+ * wheel, reloaded from the table on startup. A reminder that falls due is handed to
+ * {@link ReminderFanOutService}, which writes the attendees' notifications in batches. Each chunk
+ * moves the row's {@code deliveredUpTo} cursor in its own transaction; the row is deleted once
+ * the job is DONE. A failed job, or a restart during delivery, resumes after the cursor, with
+ * a backoff between failed attempts.
+ */
+@Service
+public class ReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final ScheduledReminderRepository reminderRepository;
+    private final EventServiceClient eventServiceClient;
+    private final ReminderFanOutService fanOutService;
+    private final List<Long> offsetMinutes;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final TimingWheel<Pending> wheel;
+
+    // Guarded by the wheel
+    private final Map<Long, Map<Long, Pending>> byEvent = new HashMap<>();
+
+    public ReminderScheduler(ScheduledReminderRepository reminderRepository,
+                             EventServiceClient eventServiceClient,
+                             ReminderFanOutService fanOutService,
+                             @Value("${notifications.reminders.offsets:24h,1h}") List<Duration> offsets,
+                             @Value("${notifications.reminders.tick-ms:1000}") long tickMs,
+                             @Value("${notifications.reminders.wheel-size:64}") int wheelSize,
+                             @Value("${notifications.reminders.retry-backoff:1m}") Duration retryBackoff,
+                             @Value("${notifications.reminders.max-retry-backoff:30m}") Duration maxRetryBackoff) {
+        this.reminderRepository = reminderRepository;
+        this.eventServiceClient = eventServiceClient;
+        this.fanOutService = fanOutService;
+        this.offsetMinutes = offsets.stream().map(Duration::toMinutes).filter(m -> m > 0).distinct().toList();
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    /** Puts the stored reminders back in the wheel; those that fell due while down go out on the next tick. */
+    @PostConstruct
+    public void reload() {
+        List<Pending> due = new ArrayList<>();
+        long lastId = 0;
+        int loaded = 0;
+        List<ScheduledReminder> page;
+        do {
+            page = reminderRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            synchronized (wheel) {
+                for (ScheduledReminder row : page) {
+                    Pending pending = new Pending(row);
+                    byEvent.computeIfAbsent(row.getEventId(), k -> new HashMap<>()).put(row.getOffsetMinutes(), pending);
+                    schedule(pending, due);
+                }
+            }
+            loaded += page.size();
+            if (!page.isEmpty()) lastId = page.get(page.size() - 1).getId();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        due.forEach(this::fire);
+        log.info("Reminder wheel reloaded: {} pending reminder(s)", loaded);
+    }
+
+    @Scheduled(fixedRateString = "${notifications.reminders.tick-ms:1000}")
+    public void tick() {
+        List<Pending> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), pending -> {
+                pending.timeout = null;
+                pending.firing = true;
+                due.add(pending);
+            });
+        }
+        due.forEach(this::fire);
+    }
+
+    /** Brings the table and the wheel in line with the upcoming events known to event-service. */
+    @Scheduled(initialDelayString = "${notifications.reminders.sync-initial-delay-ms:10000}",
+            fixedDelayString = "${notifications.reminders.sync-interval-ms:300000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        try {
+            do {
+                EventServiceClient.EventPage page = eventServiceClient.getUpcomingEvents(now, cursor);
+                List<EventServiceClient.EventInfo> events = new ArrayList<>();
+                for (EventServiceClient.EventInfo event : page.events) {
+                    if (event.id == null || event.date == null || event.title == null) continue;
+                    seen.add(event.id);
+                    events.add(event);
+                }
+                plan(events, now);
+                cursor = page.nextCursor;
+            } while (cursor != null);
+        } catch (RestClientException e) {
+            log.warn("Reminder sync with event-service failed: {}", e.getMessage());
+            return;
+        }
+
+        // Deleted, deactivated or past events
+        List<Pending> gone = new ArrayList<>();
+        synchronized (wheel) {
+            byEvent.forEach((eventId, reminders) -> {
+                if (!seen.contains(eventId)) collectIdle(reminders.values(), gone);
+            });
+            gone.forEach(this::forget);
+        }
+        drop(gone);
+    }
+
+    public int pendingCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    // ===== planning =====
+
+    private void plan(List<EventServiceClient.EventInfo> events, LocalDateTime now) {
+        List<ScheduledReminder> created = new ArrayList<>();
+        List<Pending> moved = new ArrayList<>();
+        List<Pending> obsolete = new ArrayList<>();
+        synchronized (wheel) {
+            for (EventServiceClient.EventInfo event : events) {
+                Map<Long, Pending> reminders = byEvent.getOrDefault(event.id, Map.of());
+                for (Long offset : offsetMinutes) {
+                    Pending pending = reminders.get(offset);
+                    if (pending == null) {
+                        if (event.date.minusMinutes(offset).isAfter(now)) {
+                            created.add(new ScheduledReminder(event.id, event.title, event.date, offset));
+                        }
+                    } else if (!pending.firing
+                            && (!pending.eventDate.equals(event.date) || !pending.title.equals(event.title))) {
+                        moved.add(pending.movedTo(event.title, event.date));
+                    }
+                }
+                // Offsets no longer configured
+                reminders.values().stream().filter(p -> !offsetMinutes.contains(p.offsetMinutes))
+                        .forEach(obsolete::add);
+            }
+        }
+
+        List<Pending> due = new ArrayList<>();
+        if (!created.isEmpty()) {
+            List<ScheduledReminder> saved = reminderRepository.saveAll(created);
+            synchronized (wheel) {
+                for (ScheduledReminder row : saved) {
+                    Pending pending = new Pending(row);
+                    byEvent.computeIfAbsent(row.getEventId(), k -> new HashMap<>()).put(row.getOffsetMinutes(), pending);
+                    schedule(pending, due);
+                }
+            }
+        }
+        for (Pending update : moved) {
+            if (!update.fireAt.isAfter(now)) {
+                // Moved closer than its offset: the other offsets still remind
+                obsolete.add(update);
+                continue;
+            }
+            // Only the schedule columns, and only while the row exists: the reminder may have fired
+            // since the snapshot, and its delivery cursor or deletion must not be written over
+            if (reminderRepository.reschedule(update.id, update.title, update.eventDate, update.fireAt) == 0) continue;
+            synchronized (wheel) {
+                Pending current = byEvent.getOrDefault(update.eventId, Map.of()).get(update.offsetMinutes);
+                if (current == null || current.firing) continue;
+                wheel.cancel(current.timeout);
+                current.title = update.title;
+                current.eventDate = update.eventDate;
+                current.fireAt = update.fireAt;
+                schedule(current, due);
+            }
+        }
+        if (!obsolete.isEmpty()) {
+            List<Pending> idle = new ArrayList<>();
+            synchronized (wheel) {
+                obsolete.forEach(p -> {
+                    Pending current = byEvent.getOrDefault(p.eventId, Map.of()).get(p.offsetMinutes);
+                    if (current != null) collectIdle(List.of(current), idle);
+                });
+                idle.forEach(this::forget);
+            }
+            drop(idle);
+        }
+        due.forEach(this::fire);
+    }
+
+    // Caller holds the wheel; reminders already due are added to {@code due}
+    private void schedule(Pending pending, List<Pending> due) {
+        long deadline = pending.fireAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        pending.timeout = wheel.schedule(pending, deadline);
+        if (pending.timeout == null) {
+            pending.firing = true;
+            due.add(pending);
+        }
+    }
+
+    // Caller holds the wheel: takes the reminders that are not being delivered out of the wheel
+    private void collectIdle(Collection<Pending> reminders, List<Pending> into) {
+        for (Pending pending : reminders) {
+            if (pending.firing || pending.timeout == null) continue;
+            wheel.cancel(pending.timeout);
+            pending.timeout = null;
+            into.add(pending);
+        }
+    }
+
+    private void drop(List<Pending> reminders) {
+        if (reminders.isEmpty()) return;
+        reminderRepository.deleteAllByIdInBatch(reminders.stream().map(p -> p.id).toList());
+    }
+
+    // ===== delivery =====
+
+    private void fire(Pending pending) {
+        try {
+            fanOutService.remindAttendees(pending.eventId, pending.title, pending.deliveredUpTo,
+                    lastUserId -> reminderRepository.recordProgress(pending.id, lastUserId),
+                    status -> delivered(pending, status));
+        } catch (RuntimeException e) {
+            log.warn("Reminder {} of event {} could not be submitted: {}", pending.id, pending.eventId, e.getMessage());
+            retry(pending);
+        }
+    }
+
+    private void delivered(Pending pending, FanOutJobStatus status) {
+        if (!ReminderFanOutService.DONE.equals(status.getStatus())) {
+            log.warn("Reminder {} of event {} ended {} after {} notification(s)",
+                    pending.id, pending.eventId, status.getStatus(), status.getDelivered());
+            retry(pending);
+            return;
+        }
+        reminderRepository.deleteById(pending.id);
+        synchronized (wheel) {
+            forget(pending);
+        }
+    }
+
+    // Keeps the row and puts the reminder back in the wheel, resuming after the stored cursor
+    private void retry(Pending pending) {
+        int attempts = pending.attempts + 1;
+        LocalDateTime retryAt = LocalDateTime.now().plus(backoff(attempts));
+        long deliveredUpTo = pending.deliveredUpTo;
+        try {
+            ScheduledReminder row = reminderRepository.findById(pending.id).orElse(null);
+            if (row != null) {
+                row.retryAt(retryAt);
+                reminderRepository.save(row);
+                deliveredUpTo = row.getDeliveredUpTo();
+            }
+        } catch (RuntimeException e) {
+            // The wheel still retries; a restart before then picks the row up as it is
+            log.warn("Reminder {} retry could not be saved: {}", pending.id, e.getMessage());
+        }
+        log.info("Reminder {} of event {}: attempt {} at {}, after user {}",
+                pending.id, pending.eventId, attempts + 1, retryAt, deliveredUpTo);
+
+        List<Pending> due = new ArrayList<>();
+        synchronized (wheel) {
+            pending.attempts = attempts;
+            pending.fireAt = retryAt;
+            pending.deliveredUpTo = deliveredUpTo;
+            pending.firing = false;
+            schedule(pending, due);
+        }
+        due.forEach(this::fire);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    // Caller holds the wheel
+    private void forget(Pending pending) {
+        Map<Long, Pending> reminders = byEvent.get(pending.eventId);
+        if (reminders == null || reminders.get(pending.offsetMinutes) != pending) return;
+        reminders.remove(pending.offsetMinutes);
+        if (reminders.isEmpty()) byEvent.remove(pending.eventId);
+    }
+
+    private static final class Pending {
+        final Long id;
+        final Long eventId;
+        final Long offsetMinutes;
+        String title;
+        LocalDateTime eventDate;
+        LocalDateTime fireAt;
+        // As of the last failed attempt; the row has the latest cursor while a job runs
+        long deliveredUpTo;
+        int attempts;
+        TimingWheel.Timeout<Pending> timeout;
+        boolean firing;
+
+        Pending(ScheduledReminder row) {
+            this(row.getId(), row.getEventId(), row.getOffsetMinutes(), row.getEventTitle(), row.getEventDate(),
+                    row.getDeliveredUpTo(), row.getAttempts());
+            this.fireAt = row.getFireAt();
+        }
+
+        Pending(Long id, Long eventId, Long offsetMinutes, String title, LocalDateTime eventDate,
+                long deliveredUpTo, int attempts) {
+            this.id = id;
+            this.eventId = eventId;
+            this.offsetMinutes = offsetMinutes;
+            this.title = title;
+            this.eventDate = eventDate;
+            this.fireAt = eventDate.minusMinutes(offsetMinutes);
+            this.deliveredUpTo = deliveredUpTo;
+            this.attempts = attempts;
+        }
+
+        // Detached copy carrying the new schedule, applied once the row is saved; a reminder
+        // waiting for a retry keeps its retry time
+        Pending movedTo(String newTitle, LocalDateTime newDate) {
+            Pending moved = new Pending(id, eventId, offsetMinutes, newTitle, newDate, deliveredUpTo, attempts);
+            if (attempts > 0) moved.fireAt = fireAt;
+            return moved;
+        }
+    }
+}
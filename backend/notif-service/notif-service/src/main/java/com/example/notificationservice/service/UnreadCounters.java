@@ -0,0 +1,80 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.repository.NotificationRepository;
+import com.example.notificationservice.util.LongCounterMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unread notification count per user, answered from memory. A user's counter is read from the
+ * table the first time it is asked for, then kept up to date by the writers once their change is
+ * committed; connected users are pushed the new value. A periodic pass recounts the table to
+ * correct any drift (concurrent reads of the same notification, writes from another process).
+ */
+@Service
+public class UnreadCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounters.class);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationPushService notificationPushService;
+    private final LongCounterMap counters;
+
+    public UnreadCounters(NotificationRepository notificationRepository,
+                          NotificationPushService notificationPushService,
+                          @Value("${notifications.unread.stripes:64}") int stripes) {
+        this.notificationRepository = notificationRepository;
+        this.notificationPushService = notificationPushService;
+        this.counters = new LongCounterMap(stripes);
+    }
+
+    public long get(Long userId) {
+        long count = counters.get(userId);
+        if (count != LongCounterMap.MISSING) return count;
+
+        long since = counters.stamp();
+        long counted = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        if (counters.seed(userId, counted, since)) return counted;
+        // Seeded meanwhile, or changed while being counted: the stored value, if any, is the fresher one
+        count = counters.get(userId);
+        return count != LongCounterMap.MISSING ? count : counted;
+    }
+
+    /** {@code count} new unread notifications for the user, committed. */
+    public void added(Long userId, long count) {
+        changed(userId, count);
+    }
+
+    /** {@code count} of the user's notifications went from unread to read, committed. */
+    public void read(Long userId, long count) {
+        if (count > 0) changed(userId, -count);
+    }
+
+    private void changed(Long userId, long delta) {
+        long count = counters.addIfPresent(userId, delta);
+        if (count != LongCounterMap.MISSING) {
+            notificationPushService.publishUnreadCount(userId, count);
+        } else if (notificationPushService.isConnected(userId)) {
+            // Not counted yet (its seed lost a race): a connected user still gets the new count
+            notificationPushService.publishUnreadCount(userId, get(userId));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${notifications.unread.reconcile-interval-ms:300000}",
+            fixedDelayString = "${notifications.unread.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long since = counters.stamp();
+        Map<Long, Long> actual = new HashMap<>();
+        notificationRepository.countUnreadGroupedByUser().forEach(c -> actual.put(c.getUserId(), c.getUnread()));
+        int corrected = counters.reconcile(since, userId -> actual.getOrDefault(userId, 0L));
+        if (corrected > 0) {
+            log.info("Unread counters reconciled: {} of {} corrected", corrected, counters.size());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.notificationservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Concurrent map of primitive long keys to long counters: lock-striped, each stripe an
+ * open-addressing table of parallel {@code long[]}, no boxing and no per-entry objects. Entries
+ * are never removed.
+ * <p>
+ * Counters mirror a table and are only changed after the change is committed. Every change takes
+ * a stamp from a shared clock, so a value read from the table can be applied safely: pass the
+ * {@link #stamp()} taken before the query to {@link #seed} or {@link #reconcile}, and keys changed
+ * since are left alone, as the query may or may not have seen their change.
+ */
+public final class LongCounterMap {
+
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private final Stripe[] stripes;
+    private final AtomicLong clock = new AtomicLong();
+
+    public LongCounterMap(int stripeCount) {
+        int n = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) stripes[i] = new Stripe();
+    }
+
+    public long stamp() {
+        return clock.get();
+    }
+
+    /** The counter, or {@link #MISSING} if it was never seeded. */
+    public long get(long key) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            int slot = stripe.find(key);
+            return slot < 0 ? MISSING : stripe.values[slot];
+        }
+    }
+
+    /**
+     * Sets the counter of an absent key to {@code value}, read from the table after {@code since}
+     * was taken. Refused if the key is present already, or if an absent key of its stripe changed
+     * since then. Returns whether it was stored.
+     */
+    public boolean seed(long key, long value, long since) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            if (stripe.find(key) >= 0 || stripe.lastMissedChange > since) return false;
+            stripe.insert(key, value, clock.incrementAndGet());
+            return true;
+        }
+    }
+
+    /** Adds {@code delta} (not below zero) to a seeded counter. Returns the new value, or {@link #MISSING}. */
+    public long addIfPresent(long key, long delta) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            long stamp = clock.incrementAndGet();
+            int slot = stripe.find(key);
+            if (slot < 0) {
+                stripe.lastMissedChange = stamp;
+                return MISSING;
+            }
+            long value = Math.max(0, stripe.values[slot] + delta);
+            stripe.values[slot] = value;
+            stripe.stamps[slot] = stamp;
+            return value;
+        }
+    }
+
+    /**
+     * Replaces every counter not changed since {@code since} by {@code actual} of its key.
+     * Returns how many counters were off.
+     */
+    public int reconcile(long since, LongUnaryOperator actual) {
+        int corrected = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int i = 0; i < stripe.keys.length; i++) {
+                    if (!stripe.used[i] || stripe.stamps[i] > since) continue;
+                    long value = actual.applyAsLong(stripe.keys[i]);
+                    if (stripe.values[i] != value) {
+                        stripe.values[i] = value;
+                        corrected++;
+                    }
+                }
+            }
+        }
+        return corrected;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripe(long key) {
+        return stripes[(int) (mix(key) >>> 32) & (stripes.length - 1)];
+    }
+
+    // Murmur3 finalizer: spreads sequential ids over stripes and slots
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Stripe {
+        long[] keys = new long[16];
+        long[] values = new long[16];
+        long[] stamps = new long[16];
+        boolean[] used = new boolean[16];
+        int size;
+        long lastMissedChange;
+
+        int find(long key) {
+            int mask = keys.length - 1;
+            for (int i = (int) mix(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) return i;
+            }
+            return -1;
+        }
+
+        void insert(long key, long value, long stamp) {
+            if ((size + 1) * 2 > keys.length) grow();
+            int mask = keys.length - 1;
+            int i = (int) mix(key) & mask;
+            while (used[i]) i = (i + 1) & mask;
+            used[i] = true;
+            keys[i] = key;
+            values[i] = value;
+            stamps[i] = stamp;
+            size++;
+        }
+
+        void grow() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            long[] oldStamps = stamps;
+            boolean[] oldUsed = used;
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            values = new long[capacity];
+            stamps = new long[capacity];
+            used = new boolean[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) insert(oldKeys[i], oldValues[i], oldStamps[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.notificationservice.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} buckets of {@code tickMs}; each level
+ * above has buckets as wide as the whole level below and is only created once a deadline needs
+ * it. Scheduling and cancelling are O(1); advancing one tick drains one bucket per level whose
+ * boundary is crossed, entries of upper levels moving down until they fall due. Deadlines are
+ * honoured to within one tick. Not thread-safe.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Level level0;
+    private long currentTime;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) throw new IllegalArgumentException("tickMs > 0 et wheelSize >= 2 requis");
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+        this.level0 = new Level(tickMs, currentTime);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Start of the current tick: entries due before its end have been handed out. */
+    public long currentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Adds {@code item}, due at {@code deadlineMs}. Returns null when the deadline falls within
+     * the current tick: the item is then due already and is not kept.
+     */
+    public Timeout<T> schedule(T item, long deadlineMs) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMs);
+        if (!place(timeout)) return null;
+        size++;
+        return timeout;
+    }
+
+    /** Returns false if the timeout had already expired or been cancelled. */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket == null) return false;
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    /** Moves the clock to {@code nowMs} tick by tick, passing every entry that falls due to {@code expired}. */
+    public void advance(long nowMs, Consumer<T> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+            turn(level0, expired);
+        }
+    }
+
+    // Every level whose boundary is crossed first moves its clock, then they are drained top
+    // down, so entries coming from above can still land in a bucket drained after
+    private void turn(Level level, Consumer<T> expired) {
+        level.currentTime = currentTime;
+        if (level.overflow != null && currentTime % level.overflow.tick == 0) {
+            turn(level.overflow, expired);
+        }
+        drain(level.bucketFor(currentTime), expired);
+    }
+
+    // Re-places every entry of the bucket, from level 0 up; those due now are handed out
+    private void drain(Timeout<T> head, Consumer<T> expired) {
+        while (head.next != head) {
+            Timeout<T> timeout = head.next;
+            timeout.unlink();
+            if (!place(timeout)) {
+                size--;
+                expired.accept(timeout.item);
+            }
+        }
+    }
+
+    private boolean place(Timeout<T> timeout) {
+        Level level = level0;
+        if (timeout.deadline < currentTime + tickMs) return false;
+        while (timeout.deadline >= level.currentTime + level.interval) {
+            if (level.overflow == null) {
+                long tick = level.interval;
+                level.overflow = new Level(tick, currentTime - Math.floorMod(currentTime, tick));
+            }
+            level = level.overflow;
+        }
+        timeout.linkBefore(level.bucketFor(timeout.deadline));
+        return true;
+    }
+
+    private final class Level {
+        final long tick;
+        final long interval;
+        final Timeout<T>[] buckets;
+        long currentTime;
+        Level overflow;
+
+        @SuppressWarnings("unchecked")
+        Level(long tick, long currentTime) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.currentTime = currentTime;
+            this.buckets = (Timeout<T>[]) new Timeout<?>[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Timeout<>(null, 0);
+                buckets[i].prev = buckets[i];
+                buckets[i].next = buckets[i];
+            }
+        }
+
+        // Sentinel of the circular list holding the entries due within [time, time + tick)
+        Timeout<T> bucketFor(long time) {
+            return buckets[(int) Math.floorMod(Math.floorDiv(time, tick), (long) wheelSize)];
+        }
+    }
+
+    /** Handle of a scheduled entry, to cancel it. */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Timeout<T> bucket;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T item() { return item; }
+        public long deadline() { return deadline; }
+
+        private void linkBefore(Timeout<T> sentinel) {
+            bucket = sentinel;
+            prev = sentinel.prev;
+            next = sentinel;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+            bucket = null;
+        }
+    }
+}
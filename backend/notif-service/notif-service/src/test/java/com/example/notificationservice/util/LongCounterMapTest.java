@@ -0,0 +1,76 @@
+package com.example.notificationservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongCounterMapTest {
+
+    @Test
+    void unseededKeysAreMissingAndIgnoreChanges() {
+        LongCounterMap counters = new LongCounterMap(4);
+        assertEquals(LongCounterMap.MISSING, counters.get(7));
+        assertEquals(LongCounterMap.MISSING, counters.addIfPresent(7, 1));
+        assertEquals(0, counters.size());
+    }
+
+    @Test
+    void seededCounterTakesDeltasWithoutGoingNegative() {
+        LongCounterMap counters = new LongCounterMap(4);
+        assertTrue(counters.seed(7, 3, counters.stamp()));
+        assertFalse(counters.seed(7, 10, counters.stamp()));
+        assertEquals(5, counters.addIfPresent(7, 2));
+        assertEquals(0, counters.addIfPresent(7, -9));
+        assertEquals(0, counters.get(7));
+    }
+
+    @Test
+    void seedIsRefusedWhenTheStripeMissedAChangeAfterTheStamp() {
+        // One stripe: every key shares it
+        LongCounterMap counters = new LongCounterMap(1);
+        long since = counters.stamp();
+        counters.addIfPresent(7, 1);
+        assertFalse(counters.seed(7, 0, since), "the count read after since may not include the change");
+        assertFalse(counters.seed(8, 0, since));
+
+        assertTrue(counters.seed(7, 1, counters.stamp()));
+        assertEquals(1, counters.get(7));
+    }
+
+    @Test
+    void reconcileLeavesCountersChangedAfterTheStamp() {
+        LongCounterMap counters = new LongCounterMap(4);
+        counters.seed(1, 5, counters.stamp());
+        counters.seed(2, 5, counters.stamp());
+        counters.seed(3, 5, counters.stamp());
+
+        long since = counters.stamp();
+        counters.addIfPresent(2, 1);
+        Map<Long, Long> actual = Map.of(1L, 4L, 2L, 9L, 3L, 5L);
+        int corrected = counters.reconcile(since, key -> actual.get(key));
+
+        assertEquals(1, corrected);
+        assertEquals(4, counters.get(1));
+        assertEquals(6, counters.get(2));
+        assertEquals(5, counters.get(3));
+
+        // Untouched since the next stamp: now reconciled too
+        assertEquals(1, counters.reconcile(counters.stamp(), key -> actual.get(key)));
+        assertEquals(9, counters.get(2));
+    }
+
+    @Test
+    void keepsEveryCounterAcrossGrowth() {
+        LongCounterMap counters = new LongCounterMap(2);
+        Map<Long, Long> expected = new HashMap<>();
+        for (long key = 0; key < 10_000; key++) {
+            assertTrue(counters.seed(key * 31, key, counters.stamp()));
+            expected.put(key * 31, key);
+        }
+        assertEquals(10_000, counters.size());
+        expected.forEach((key, value) -> assertEquals(value, counters.get(key)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.notificationservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+
+    @Test
+    void firesEachEntryWithinOneTickOfItsDeadline() {
+        // 4 buckets of 10 ms: levels of 40, 160, 640 and 2560 ms are needed below
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 4, 0);
+        Random random = new Random(3);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = TICK + random.nextInt(5_000);
+            deadlines.add(deadline);
+            assertNotNull(wheel.schedule(deadline, deadline));
+        }
+        assertEquals(deadlines.size(), wheel.size());
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = TICK; now <= 6_000; now += TICK) {
+            long tickStart = now;
+            wheel.advance(now, deadline -> {
+                assertTrue(deadline > tickStart - TICK && deadline < tickStart + TICK,
+                        "deadline " + deadline + " fired at " + tickStart);
+                fired.add(deadline);
+            });
+        }
+        assertEquals(0, wheel.size());
+        Collections.sort(deadlines);
+        assertEquals(deadlines, fired.stream().sorted().toList());
+    }
+
+    @Test
+    void cascadesFromUpperLevelsInOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        wheel.schedule("level 3", 2_000);
+        wheel.schedule("level 2", 500);
+        wheel.schedule("level 1", 100);
+        wheel.schedule("level 0", 30);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(2_000, fired::add);
+        assertEquals(List.of("level 0", "level 1", "level 2", "level 3"), fired);
+    }
+
+    @Test
+    void largeAdvanceHandsOutEverythingDue() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 8, 1_000);
+        for (long deadline = 1_010; deadline < 50_000; deadline += 37) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(20_000, fired::add);
+        assertFalse(fired.isEmpty());
+        assertTrue(fired.stream().allMatch(d -> d < 20_000 + TICK));
+        int remaining = wheel.size();
+        wheel.advance(60_000, fired::add);
+        assertEquals(0, wheel.size());
+        assertEquals(fired.size() - remaining, fired.stream().filter(d -> d < 20_000 + TICK).count());
+    }
+
+    @Test
+    void cancelledEntriesNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        TimingWheel.Timeout<String> near = wheel.schedule("near", 25);
+        TimingWheel.Timeout<String> far = wheel.schedule("far", 1_000);
+        wheel.schedule("kept", 1_000);
+
+        assertTrue(wheel.cancel(near));
+        assertTrue(wheel.cancel(far));
+        assertFalse(wheel.cancel(far));
+        assertEquals(1, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(2_000, fired::add);
+        assertEquals(List.of("kept"), fired);
+        assertFalse(wheel.cancel(null));
+    }
+
+    @Test
+    void deadlineWithinCurrentTickIsDueAlready() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 105);
+        assertEquals(100, wheel.currentTime());
+        assertNull(wheel.schedule("past", 50));
+        assertNull(wheel.schedule("now", 109));
+        assertNotNull(wheel.schedule("next tick", 110));
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.registrationservice.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads event capacities from event-service, caching each answer for a short TTL.
+ * A capacity of {@code null} means unlimited: no maximum set, or event-service could not tell.
+ * Also reads event organizers for ownership checks, and pushes seat count changes,
+ * see {@link #applySeatChanges}.
+ */
+@Component
+public class EventServiceClient {
+
+    private static final Logger log = LoggerFactory.getLogger(EventServiceClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final long ttlMillis;
+
+    private final Map<Long, CachedCapacity> capacities = new ConcurrentHashMap<>();
+
+    public EventServiceClient(RestTemplateBuilder builder,
+                              @Value("${event-service.url:http://localhost:8082}") String baseUrl,
+                              @Value("${event-service.capacity-cache-ttl-ms:30000}") long ttlMillis) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(2))
+                .build();
+        this.baseUrl = baseUrl;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public Integer getCapacity(Long eventId) {
+        long now = System.currentTimeMillis();
+        CachedCapacity cached = capacities.get(eventId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.capacity;
+        }
+
+        Integer capacity = fetchCapacity(eventId);
+        capacities.put(eventId, new CachedCapacity(capacity, now + ttlMillis));
+        return capacity;
+    }
+
+    private Integer fetchCapacity(Long eventId) {
+        try {
+            EventInfo event = restTemplate.getForObject(baseUrl + "/api/events/{id}", EventInfo.class, eventId);
+            if (event == null || event.maxParticipants == null || event.maxParticipants <= 0) return null;
+            return event.maxParticipants;
+        } catch (RestClientException e) {
+            log.warn("Could not read capacity of event {}: {}", eventId, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Organizer of the event, or {@code null} when event-service does not know it or cannot be reached. */
+    public Long getOrganizerId(Long eventId) {
+        try {
+            EventInfo event = restTemplate.getForObject(baseUrl + "/api/events/{id}", EventInfo.class, eventId);
+            return event == null ? null : event.organizerId;
+        } catch (RestClientException e) {
+            log.warn("Could not read organizer of event {}: {}", eventId, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Applies net seat changes in one call; failures are thrown so the caller can retry. */
+    public List<SeatChangeResult> applySeatChanges(List<SeatChange> changes) {
+        SeatChangeResult[] results = restTemplate.postForObject(
+                baseUrl + "/api/events/seats/batch", changes, SeatChangeResult[].class);
+        return results == null ? List.of() : Arrays.asList(results);
+    }
+
+    public static class SeatChange {
+        public Long eventId;
+        public int seats;
+        public String dedupeKey;
+
+        public SeatChange(Long eventId, int seats, String dedupeKey) {
+            this.eventId = eventId;
+            this.seats = seats;
+            this.dedupeKey = dedupeKey;
+        }
+    }
+
+    public static class SeatChangeResult {
+        public Long eventId;
+        public int seats;
+        public boolean applied;
+        public String message;
+    }
+
+    static class EventInfo {
+        public Long id;
+        public Integer maxParticipants;
+        public Long organizerId;
+    }
+
+    private static final class CachedCapacity {
+        final Integer capacity;
+        final long expiresAt;
+
+        CachedCapacity(Integer capacity, long expiresAt) {
+            this.capacity = capacity;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,32 +1,85 @@
 package com.example.registrationservice.controller;
 
+import com.example.registrationservice.client.EventServiceClient;
+import com.example.registrationservice.dto.AdmissionTicket;
+import com.example.registrationservice.dto.CheckInResult;
+import com.example.registrationservice.dto.ExportJobStatus;
+import com.example.registrationservice.dto.ImportResult;
 import com.example.registrationservice.dto.RegistrationRequest;
 import com.example.registrationservice.model.Registration;
+import com.example.registrationservice.service.BurstAdmissionService;
+import com.example.registrationservice.service.CheckInService;
+import com.example.registrationservice.service.ExportJobService;
+import com.example.registrationservice.service.IdempotencyStore;
+import com.example.registrationservice.service.QrTicketService;
+import com.example.registrationservice.service.RegistrationImportService;
 import com.example.registrationservice.service.RegistrationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/registrations")
 @CrossOrigin(origins = "http://localhost:4200")
 public class RegistrationController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final RegistrationService registrationService;
+    private final IdempotencyStore idempotencyStore;
+    private final BurstAdmissionService burstAdmissionService;
+    private final ExportJobService exportJobService;
+    private final RegistrationImportService registrationImportService;
+    private final QrTicketService qrTicketService;
+    private final CheckInService checkInService;
+    private final EventServiceClient eventServiceClient;
 
-    public RegistrationController(RegistrationService registrationService) {
+    public RegistrationController(RegistrationService registrationService,
+                                  IdempotencyStore idempotencyStore,
+                                  BurstAdmissionService burstAdmissionService,
+                                  ExportJobService exportJobService,
+                                  RegistrationImportService registrationImportService,
+                                  QrTicketService qrTicketService,
+                                  CheckInService checkInService,
+                                  EventServiceClient eventServiceClient) {
         this.registrationService = registrationService;
+        this.idempotencyStore = idempotencyStore;
+        this.burstAdmissionService = burstAdmissionService;
+        this.exportJobService = exportJobService;
+        this.registrationImportService = registrationImportService;
+        this.qrTicketService = qrTicketService;
+        this.checkInService = checkInService;
+        this.eventServiceClient = eventServiceClient;
     }
 
     // ===== Participant: register =====
+    // Retries carrying the same Idempotency-Key get the original answer back.
+    // Events in burst mode answer 202 with a ticket to poll instead of the registration.
     @PostMapping("/events/{eventId}")
-    public ResponseEntity<Registration> register(
+    public ResponseEntity<?> register(
             @PathVariable Long eventId,
             @RequestBody RegistrationRequest req,
             @RequestHeader("X-User-Id") Long userId,
-            @RequestHeader("X-User-Role") String role
+            @RequestHeader("X-User-Role") String role,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
         if (!"PARTICIPANT".equalsIgnoreCase(role) && !"ADMIN".equalsIgnoreCase(role)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -35,7 +88,135 @@ public class RegistrationController {
             return ResponseEntity.badRequest().build();
         }
 
-        return ResponseEntity.ok(registrationService.registerToEvent(eventId, userId, req));
+        if (burstAdmissionService.isEnabled(eventId)) {
+            Optional<AdmissionTicket> ticket;
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                ticket = burstAdmissionService.submit(eventId, userId, req);
+            } else {
+                // A full queue is thrown rather than returned, so the key is not kept and a retry can get in
+                try {
+                    ticket = Optional.of(idempotencyStore.execute(scope(userId, eventId, idempotencyKey),
+                            () -> burstAdmissionService.submit(eventId, userId, req)
+                                    .orElseThrow(QueueFullException::new)));
+                } catch (QueueFullException e) {
+                    ticket = Optional.empty();
+                }
+            }
+            return ticket
+                    .<ResponseEntity<?>>map(t -> ResponseEntity
+                            .accepted()
+                            .location(URI.create("/api/registrations/tickets/" + t.getTicketId()))
+                            .body(t))
+                    .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .build());
+        }
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(registrationService.registerToEvent(eventId, userId, req));
+        }
+        return ResponseEntity.ok(idempotencyStore.execute(scope(userId, eventId, idempotencyKey),
+                () -> registrationService.registerToEvent(eventId, userId, req)));
+    }
+
+    private static String scope(Long userId, Long eventId, String idempotencyKey) {
+        return userId + ":" + eventId + ":" + idempotencyKey;
+    }
+
+    private static final class QueueFullException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        QueueFullException() {
+            super("File d'attente pleine", null, false, false);
+        }
+    }
+
+    // ===== Participant: poll a burst mode ticket =====
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<AdmissionTicket> getTicket(
+            @PathVariable String ticketId,
+            @RequestHeader("X-User-Id") Long userId
+    ) {
+        return burstAdmissionService.getTicket(ticketId, userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ===== Organizer: burst mode for an event about to open =====
+    @PutMapping("/events/{eventId}/burst-mode")
+    public ResponseEntity<Void> setBurstMode(
+            @PathVariable Long eventId,
+            @RequestParam boolean enabled,
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestHeader("X-User-Role") String role
+    ) {
+        if (!"ORGANIZER".equalsIgnoreCase(role) && !"ADMIN".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        // Organizers only for their own events; an event-service that cannot tell means no
+        if (!"ADMIN".equalsIgnoreCase(role) && !userId.equals(eventServiceClient.getOrganizerId(eventId))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        burstAdmissionService.setEnabled(eventId, enabled);
+        return ResponseEntity.ok().build();
+    }
+
+    // ===== Organizer: bulk import (CSV with a header line, or a JSON array) =====
+    // The body is read as it arrives; rows are inserted in batches along the way
+    @PostMapping(value = "/event/{eventId}/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ImportResult> importRegistrations(
+            @PathVariable Long eventId,
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestHeader("X-User-Role") String role,
+            HttpServletRequest request
+    ) throws IOException {
+        if (!"ORGANIZER".equalsIgnoreCase(role) && !"ADMIN".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        // Into their own events only, as for burst mode
+        if (!"ADMIN".equalsIgnoreCase(role) && !userId.equals(eventServiceClient.getOrganizerId(eventId))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        boolean json = MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        try {
+            ImportResult result = json
+                    ? registrationImportService.importJson(eventId, request.getInputStream())
+                    : registrationImportService.importCsv(eventId, request.getInputStream());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ===== Venue check-in (organizer staff scanning QR tickets) =====
+    // Load the event's tickets before doors open; scans are then answered from memory
+    @PostMapping("/events/{eventId}/check-in/preload")
+    public ResponseEntity<Map<String, Object>> preloadCheckIn(
+            @PathVariable Long eventId,
+            @RequestHeader("X-User-Role") String role
+    ) {
+        if (!"ORGANIZER".equalsIgnoreCase(role) && !"ADMIN".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(checkInService.preload(eventId));
+    }
+
+    // Body: the scanned QR code text
+    @PostMapping(value = "/events/{eventId}/check-in", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<CheckInResult> checkIn(
+            @PathVariable Long eventId,
+            @RequestBody String ticket,
+            @RequestHeader("X-User-Role") String role
+    ) {
+        if (!"ORGANIZER".equalsIgnoreCase(role) && !"ADMIN".equalsIgnoreCase(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(checkInService.checkIn(eventId, ticket.trim()));
+    }
+
+    @GetMapping("/events/{eventId}/attendance")
+    public ResponseEntity<Map<String, Object>> getAttendance(@PathVariable Long eventId) {
+        return ResponseEntity.ok(checkInService.getAttendance(eventId));
     }
 
     // ===== Participant: my registrations =====
@@ -52,6 +233,28 @@ public class RegistrationController {
         return ResponseEntity.ok(registrationService.getEventRegistrations(eventId));
     }
 
+    // ===== Confirmed attendees of an event, by pages of user ids =====
+    // Pass the returned nextCursor as ?after= to get the next page; it is null on the last one
+    @GetMapping("/event/{eventId}/attendee-ids")
+    public ResponseEntity<Map<String, Object>> getAttendeeIds(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        int size = Math.max(1, Math.min(limit, 10_000));
+        List<Long> userIds = registrationService.getConfirmedUserIds(eventId, after, size);
+        Map<String, Object> response = new HashMap<>();
+        response.put("userIds", userIds);
+        response.put("nextCursor", userIds.size() < size ? null : userIds.get(userIds.size() - 1));
+        return ResponseEntity.ok(response);
+    }
+
+    // ===== Registration counts of several events at once, e.g. ?eventIds=1,2,3 =====
+    @GetMapping("/counts")
+    public ResponseEntity<Map<Long, Map<String, Long>>> getRegistrationCounts(@RequestParam List<Long> eventIds) {
+        return ResponseEntity.ok(registrationService.getRegistrationCounts(eventIds));
+    }
+
     // ===== Cancel =====
     @DeleteMapping("/{registrationId}")
     public ResponseEntity<Void> cancel(
@@ -64,27 +267,86 @@ public class RegistrationController {
     }
 
     // ===== Export CSV =====
+    // Streamed row by row, gzip-compressed when the client accepts it
     @GetMapping("/event/{eventId}/export")
-    public ResponseEntity<byte[]> export(@PathVariable Long eventId) {
-        List<Registration> regs = registrationService.getEventRegistrations(eventId);
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable Long eventId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+        headers.setContentDispositionFormData("attachment", "inscriptions-evenement-" + eventId + ".csv");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
 
-        StringBuilder csv = new StringBuilder();
-        csv.append("Nom,Email,Téléphone,Date d'inscription,Statut\n");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 8192);
+            registrationService.exportEventRegistrations(eventId, writer);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
-        regs.forEach(r -> csv.append(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                r.getParticipantName(),
-                r.getParticipantEmail(),
-                r.getParticipantPhone() != null ? r.getParticipantPhone() : "",
-                r.getRegistrationDate(),
-                r.getStatus()
-        )));
+    // ===== Export jobs: generated once, downloaded (and resumed) as often as needed =====
+    @PostMapping("/event/{eventId}/export-jobs")
+    public ResponseEntity<ExportJobStatus> submitExportJob(@PathVariable Long eventId) {
+        ExportJobStatus job = exportJobService.submit(eventId);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/registrations/export-jobs/" + job.getJobId()))
+                .body(job);
+    }
 
-        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+    @GetMapping("/export-jobs/{jobId}")
+    public ResponseEntity<ExportJobStatus> getExportJob(@PathVariable String jobId) {
+        return exportJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_PLAIN);
-        headers.setContentDispositionFormData("attachment", "inscriptions-evenement-" + eventId + ".csv");
+    @GetMapping("/export-jobs/{jobId}/download")
+    public void downloadExport(
+            @PathVariable String jobId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Optional<Path> file = exportJobService.getFile(jobId);
+        if (file.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ExportJobStatus job = exportJobService.getStatus(jobId).orElseThrow();
+        response.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("inscriptions-evenement-" + job.getEventId() + ".csv").build().toString());
+        // A job's file never changes, its id is a strong validator
+        response.setHeader(HttpHeaders.ETAG, "\"" + jobId + "\"");
+        FileTransfer.send(file.get(), request, response);
+    }
 
-        return new ResponseEntity<>(bytes, headers, HttpStatus.OK);
+    // ===== QR ticket images =====
+    // Named after their content hash, so they never change and are cached for a year
+    @GetMapping("/qr/{hash:[0-9a-f]{64}}.png")
+    public void getQrTicket(
+            @PathVariable String hash,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Optional<Path> file = qrTicketService.getImage(hash);
+        if (file.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + hash + "\"")) return;
+        response.setContentType(MediaType.IMAGE_PNG_VALUE);
+        FileTransfer.send(file.get(), request, response);
     }
 }
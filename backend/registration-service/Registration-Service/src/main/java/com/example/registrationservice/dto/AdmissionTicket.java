@@ -0,0 +1,31 @@
+package com.example.registrationservice.dto;
+
+/**
+ * Answer to a registration accepted in burst mode. Poll {@code GET /api/registrations/tickets/{ticketId}}
+ * until {@code status} is no longer QUEUED; {@code position} counts the requests still ahead, this one included.
+ */
+public class AdmissionTicket {
+    private final String ticketId;
+    private final Long eventId;
+    private final String status; // QUEUED, CONFIRMED, WAITING_LIST, REJECTED
+    private final long position;
+    private final Long registrationId;
+    private final String message;
+
+    public AdmissionTicket(String ticketId, Long eventId, String status, long position,
+                           Long registrationId, String message) {
+        this.ticketId = ticketId;
+        this.eventId = eventId;
+        this.status = status;
+        this.position = position;
+        this.registrationId = registrationId;
+        this.message = message;
+    }
+
+    public String getTicketId() { return ticketId; }
+    public Long getEventId() { return eventId; }
+    public String getStatus() { return status; }
+    public long getPosition() { return position; }
+    public Long getRegistrationId() { return registrationId; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,18 @@
+package com.example.registrationservice.dto;
+
+/** Answer to a ticket scan; {@code attendance} counts the attendees checked in so far. */
+public class CheckInResult {
+    private final Long eventId;
+    private final String status; // ACCEPTED, ALREADY_CHECKED_IN, INVALID
+    private final int attendance;
+
+    public CheckInResult(Long eventId, String status, int attendance) {
+        this.eventId = eventId;
+        this.status = status;
+        this.attendance = attendance;
+    }
+
+    public Long getEventId() { return eventId; }
+    public String getStatus() { return status; }
+    public int getAttendance() { return attendance; }
+}
@@ -0,0 +1,35 @@
+package com.example.registrationservice.dto;
+
+import java.time.LocalDateTime;
+
+public class ExportJobStatus {
+    private final String jobId;
+    private final Long eventId;
+    private final String status; // PENDING, RUNNING, READY, FAILED
+    private final long rows;
+    private final long sizeBytes;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime completedAt;
+    private final String message;
+
+    public ExportJobStatus(String jobId, Long eventId, String status, long rows, long sizeBytes,
+                           LocalDateTime createdAt, LocalDateTime completedAt, String message) {
+        this.jobId = jobId;
+        this.eventId = eventId;
+        this.status = status;
+        this.rows = rows;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.message = message;
+    }
+
+    public String getJobId() { return jobId; }
+    public Long getEventId() { return eventId; }
+    public String getStatus() { return status; }
+    public long getRows() { return rows; }
+    public long getSizeBytes() { return sizeBytes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public String getMessage() { return message; }
+}
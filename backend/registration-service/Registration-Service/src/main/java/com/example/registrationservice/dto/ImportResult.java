@@ -0,0 +1,30 @@
+package com.example.registrationservice.dto;
+
+import java.util.List;
+
+public class ImportResult {
+    private final long received;
+    private final long confirmed;
+    private final long waitingList;
+    private final long duplicates;
+    private final long invalid;
+    private final List<String> errors;
+
+    public ImportResult(long received, long confirmed, long waitingList, long duplicates, long invalid,
+                        List<String> errors) {
+        this.received = received;
+        this.confirmed = confirmed;
+        this.waitingList = waitingList;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+        this.errors = errors;
+    }
+
+    public long getReceived() { return received; }
+    public long getImported() { return confirmed + waitingList; }
+    public long getConfirmed() { return confirmed; }
+    public long getWaitingList() { return waitingList; }
+    public long getDuplicates() { return duplicates; }
+    public long getInvalid() { return invalid; }
+    public List<String> getErrors() { return errors; }
+}
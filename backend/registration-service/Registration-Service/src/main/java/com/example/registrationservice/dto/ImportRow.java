@@ -0,0 +1,10 @@
+package com.example.registrationservice.dto;
+
+// One attendee of a bulk import (JSON array element or CSV line)
+public class ImportRow {
+    public Long userId;
+    public String participantName;
+    public String participantEmail;
+    public String participantPhone;
+    public String notes;
+}
@@ -4,10 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "registrations")
+@Table(name = "registrations", uniqueConstraints = {
+        @UniqueConstraint(name = Registration.UNIQUE_EVENT_USER, columnNames = {"eventId", "userId"})
+}, indexes = {
+        @Index(name = "idx_registrations_status_event", columnList = "status, eventId"),
+        @Index(name = "idx_registrations_event_ticket", columnList = "eventId, ticketToken")
+})
 public class Registration {
+    public static final String UNIQUE_EVENT_USER = "uk_registrations_event_user";
+
+    // Pooled sequence rather than IDENTITY, so Hibernate can batch inserts (imports, burst mode)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registrations_seq")
+    @SequenceGenerator(name = "registrations_seq", sequenceName = "registrations_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,6 +34,9 @@ public class Registration {
     private String participantPhone;
     private String notes;
     private String qrCodeUrl;
+    // Random secret encoded in the QR ticket, set along with qrCodeUrl
+    private Long ticketToken;
+    private LocalDateTime checkedInAt;
 
     @Column(nullable = false)
     private LocalDateTime registrationDate;
@@ -32,11 +44,20 @@ public class Registration {
     @Column(nullable = false)
     private String status; // PENDING, CONFIRMED, CANCELLED, WAITING_LIST
 
+    // Last write to the row; bulk UPDATEs set it explicitly
+    private LocalDateTime updatedAt;
+
     public Registration() {
         this.registrationDate = LocalDateTime.now();
         this.status = "CONFIRMED";
     }
 
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
     // getters/setters ...
     public Long getId() { return id; }
     public Long getEventId() { return eventId; }
@@ -46,6 +67,7 @@ public class Registration {
     public LocalDateTime getRegistrationDate() { return registrationDate; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 
     public String getParticipantName() { return participantName; }
     public void setParticipantName(String participantName) { this.participantName = participantName; }
@@ -61,4 +83,6 @@ public class Registration {
 
     public String getQrCodeUrl() { return qrCodeUrl; }
     public void setQrCodeUrl(String qrCodeUrl) { this.qrCodeUrl = qrCodeUrl; }
+    public Long getTicketToken() { return ticketToken; }
+    public LocalDateTime getCheckedInAt() { return checkedInAt; }
 }
@@ -0,0 +1,51 @@
+package com.example.registrationservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A change of confirmed seats, written in the same transaction as the registration change
+ * that caused it and deleted once event-service has applied it. Entries are sent in batches
+ * whose id is stamped on them, so a retry carries the same dedupe keys; entries event-service
+ * refused are parked with its reason instead of being deleted.
+ */
+@Entity
+@Table(name = "seat_outbox", indexes = {
+        @Index(name = "idx_seat_outbox_batch", columnList = "parkedAt, batch, id")
+})
+public class SeatOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private int seats; // > 0 reserves, < 0 releases
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private String batch;
+
+    private LocalDateTime parkedAt;
+    private String refusal;
+
+    protected SeatOutboxEntry() {
+    }
+
+    public SeatOutboxEntry(Long eventId, int seats) {
+        this.eventId = eventId;
+        this.seats = seats;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public Long getEventId() { return eventId; }
+    public int getSeats() { return seats; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getBatch() { return batch; }
+    public LocalDateTime getParkedAt() { return parkedAt; }
+    public String getRefusal() { return refusal; }
+}
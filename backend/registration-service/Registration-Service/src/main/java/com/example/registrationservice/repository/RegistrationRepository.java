@@ -1,16 +1,164 @@
 package com.example.registrationservice.repository;
 
 import com.example.registrationservice.model.Registration;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
     List<Registration> findByEventId(Long eventId);
     List<Registration> findByUserId(Long userId);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM Registration r WHERE r.eventId = :eventId ORDER BY r.id")
+    Stream<Registration> streamByEventId(@Param("eventId") Long eventId);
     Optional<Registration> findByEventIdAndUserId(Long eventId, Long userId);
 
+    @Query("SELECT r.userId FROM Registration r WHERE r.eventId = :eventId")
+    List<Long> findUserIdsByEventId(@Param("eventId") Long eventId);
+
+    // Keyset page over the (eventId, userId) unique key, for callers walking an event's attendees
+    @Query("SELECT r.userId FROM Registration r WHERE r.eventId = :eventId AND r.status = 'CONFIRMED' "
+            + "AND r.userId > :after ORDER BY r.userId")
+    List<Long> findConfirmedUserIdsAfter(@Param("eventId") Long eventId, @Param("after") Long after, Pageable page);
+
+    @Query("SELECT r.userId FROM Registration r WHERE r.eventId = :eventId AND r.userId IN :userIds")
+    List<Long> findRegisteredUserIds(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds);
+
+    // Changes whenever a registration of the event is added, removed or updated
+    @Query("SELECT COUNT(r) AS total, MAX(r.updatedAt) AS lastUpdate FROM Registration r WHERE r.eventId = :eventId")
+    ExportFingerprint findExportFingerprint(@Param("eventId") Long eventId);
+
+    interface ExportFingerprint {
+        long getTotal();
+        LocalDateTime getLastUpdate();
+    }
+
     Long countByEventId(Long eventId);
     Long countByEventIdAndStatus(Long eventId, String status);
+
+    // One pass over the table to seed the in-memory counters
+    @Query("SELECT new com.example.registrationservice.repository.RegistrationRepository$StatusCount("
+            + "r.eventId, r.status, COUNT(r)) FROM Registration r GROUP BY r.eventId, r.status")
+    List<StatusCount> countGroupedByEventAndStatus();
+
+    final class StatusCount {
+        private final Long eventId;
+        private final String status;
+        private final long count;
+
+        public StatusCount(Long eventId, String status, long count) {
+            this.eventId = eventId;
+            this.status = status;
+            this.count = count;
+        }
+
+        public Long getEventId() { return eventId; }
+        public String getStatus() { return status; }
+        public long getCount() { return count; }
+    }
+
+    // ===== waiting list =====
+
+    // Constructor expression: proxy-based projections cost too much per row at 100k+ waiters
+    @Query("SELECT new com.example.registrationservice.repository.RegistrationRepository$WaitingEntry("
+            + "r.id, r.eventId, r.registrationDate) FROM Registration r WHERE r.status = 'WAITING_LIST'")
+    List<WaitingEntry> findWaitingEntries();
+
+    final class WaitingEntry {
+        private final Long id;
+        private final Long eventId;
+        private final LocalDateTime registrationDate;
+
+        public WaitingEntry(Long id, Long eventId, LocalDateTime registrationDate) {
+            this.id = id;
+            this.eventId = eventId;
+            this.registrationDate = registrationDate;
+        }
+
+        public Long getId() { return id; }
+        public Long getEventId() { return eventId; }
+        public LocalDateTime getRegistrationDate() { return registrationDate; }
+    }
+
+    // Conditional, so a waiter who cancelled in the meantime is never confirmed
+    @Transactional
+    @Modifying
+    @Query("UPDATE Registration r SET r.status = 'CONFIRMED', r.updatedAt = :now "
+            + "WHERE r.id = :id AND r.status = 'WAITING_LIST'")
+    int promote(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Conditional on the status read before, so of two concurrent cancels only one takes effect
+    @Transactional
+    @Modifying
+    @Query("UPDATE Registration r SET r.status = 'CANCELLED', r.updatedAt = :now "
+            + "WHERE r.id = :id AND r.status = :previous")
+    int cancel(@Param("id") Long id, @Param("previous") String previous, @Param("now") LocalDateTime now);
+
+    // ===== QR tickets =====
+
+    @Query("SELECT new com.example.registrationservice.repository.RegistrationRepository$PendingTicket("
+            + "r.id, r.eventId) FROM Registration r WHERE r.status = 'CONFIRMED' AND r.qrCodeUrl IS NULL ORDER BY r.id")
+    List<PendingTicket> findPendingTickets(Pageable page);
+
+    final class PendingTicket {
+        private final Long id;
+        private final Long eventId;
+
+        public PendingTicket(Long id, Long eventId) {
+            this.id = id;
+            this.eventId = eventId;
+        }
+
+        public Long getId() { return id; }
+        public Long getEventId() { return eventId; }
+    }
+
+    // Leaves updatedAt alone: the ticket is not part of the exported data.
+    // Registrations cancelled since they were queued get no ticket.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Registration r SET r.ticketToken = :token, r.qrCodeUrl = :url "
+            + "WHERE r.id = :id AND r.qrCodeUrl IS NULL AND r.status = 'CONFIRMED'")
+    int attachTicket(@Param("id") Long id, @Param("token") long token, @Param("url") String url);
+
+    // ===== check-in =====
+
+    @Query("SELECT r.ticketToken FROM Registration r WHERE r.id = :id")
+    Long findTicketTokenById(@Param("id") Long id);
+
+    boolean existsByEventIdAndTicketTokenAndStatus(Long eventId, Long ticketToken, String status);
+
+    @Query("SELECT new com.example.registrationservice.repository.RegistrationRepository$TicketState("
+            + "r.ticketToken, r.checkedInAt) FROM Registration r "
+            + "WHERE r.eventId = :eventId AND r.status = 'CONFIRMED' AND r.ticketToken IS NOT NULL")
+    List<TicketState> findTicketStates(@Param("eventId") Long eventId);
+
+    final class TicketState {
+        private final long token;
+        private final LocalDateTime checkedInAt;
+
+        public TicketState(Long token, LocalDateTime checkedInAt) {
+            this.token = token;
+            this.checkedInAt = checkedInAt;
+        }
+
+        public long getToken() { return token; }
+        public LocalDateTime getCheckedInAt() { return checkedInAt; }
+    }
 }
@@ -0,0 +1,31 @@
+package com.example.registrationservice.repository;
+
+import com.example.registrationservice.model.SeatOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SeatOutboxRepository extends JpaRepository<SeatOutboxEntry, Long> {
+    // Oldest first, not yet part of a batch
+    List<SeatOutboxEntry> findByBatchIsNullAndParkedAtIsNullOrderByIdAsc(Pageable page);
+
+    // A batch whose delivery failed, to be resent as is
+    List<SeatOutboxEntry> findByBatchIsNotNullAndParkedAtIsNullOrderByIdAsc();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SeatOutboxEntry e SET e.batch = :batch WHERE e.id IN :ids")
+    int assignBatch(@Param("batch") String batch, @Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SeatOutboxEntry e SET e.parkedAt = :now, e.refusal = :refusal WHERE e.id IN :ids")
+    int park(@Param("ids") Collection<Long> ids, @Param("refusal") String refusal, @Param("now") LocalDateTime now);
+}
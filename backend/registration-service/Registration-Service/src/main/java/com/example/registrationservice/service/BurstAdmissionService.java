@@ -0,0 +1,253 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.dto.AdmissionTicket;
+import com.example.registrationservice.dto.RegistrationRequest;
+import com.example.registrationservice.model.Registration;
+import com.example.registrationservice.repository.RegistrationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in "burst mode" for events opening to a rush of registrations. Requests are parked in a
+ * bounded per-event queue and answered at once with a ticket; a single writer thread drains the
+ * queues and stores each batch in one transaction, so request threads never wait on the database
+ * and the burst uses one connection. A full queue turns new requests away instead of growing.
+ */
+@Service
+public class BurstAdmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BurstAdmissionService.class);
+
+    static final String QUEUED = "QUEUED";
+    static final String REJECTED = "REJECTED";
+    private static final String ALREADY_REGISTERED = "Utilisateur déjà inscrit à cet événement";
+
+    private final RegistrationRepository registrationRepository;
+    private final RegistrationService registrationService;
+    private final WaitingListService waitingListService;
+    private final TransactionTemplate tx;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long ticketTtlMillis;
+
+    private final Set<Long> burstEvents = ConcurrentHashMap.newKeySet();
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private final Object signal = new Object();
+    private volatile boolean running;
+    private Thread writer;
+    private long lastPurge;
+
+    public BurstAdmissionService(RegistrationRepository registrationRepository,
+                                 RegistrationService registrationService,
+                                 WaitingListService waitingListService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${registrations.burst.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${registrations.burst.batch-size:200}") int batchSize,
+                                 @Value("${registrations.burst.ticket-ttl-ms:600000}") long ticketTtlMillis) {
+        this.registrationRepository = registrationRepository;
+        this.registrationService = registrationService;
+        this.waitingListService = waitingListService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.ticketTtlMillis = ticketTtlMillis;
+    }
+
+    public boolean isEnabled(Long eventId) {
+        return burstEvents.contains(eventId);
+    }
+
+    /** Requests already queued are still written after burst mode is switched off. */
+    public void setEnabled(Long eventId, boolean enabled) {
+        if (enabled) {
+            burstEvents.add(eventId);
+        } else {
+            burstEvents.remove(eventId);
+        }
+    }
+
+    /** Queues the registration; empty when the event's admission queue is full. */
+    public Optional<AdmissionTicket> submit(Long eventId, Long userId, RegistrationRequest req) {
+        EventQueue queue = queues.computeIfAbsent(eventId, id -> new EventQueue(queueCapacity));
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), eventId, userId, req);
+        synchronized (queue) {
+            ticket.sequence = queue.submitted + 1;
+            if (!queue.pending.offer(ticket)) {
+                return Optional.empty();
+            }
+            queue.submitted = ticket.sequence;
+        }
+        tickets.put(ticket.id, ticket);
+        synchronized (signal) {
+            signal.notify();
+        }
+        return Optional.of(ticket.snapshot(queue));
+    }
+
+    public Optional<AdmissionTicket> getTicket(String ticketId, Long userId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.userId.equals(userId)) return Optional.empty();
+        return Optional.of(ticket.snapshot(queues.get(ticket.eventId)));
+    }
+
+    // ===== writer =====
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "burst-admission-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        synchronized (signal) {
+            signal.notify();
+        }
+        writer.join(5_000);
+    }
+
+    private void runWriter() {
+        while (running) {
+            boolean drained = false;
+            for (Map.Entry<Long, EventQueue> e : queues.entrySet()) {
+                drained |= drain(e.getKey(), e.getValue());
+            }
+            purgeTickets();
+            if (!drained) {
+                synchronized (signal) {
+                    try {
+                        signal.wait(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean drain(Long eventId, EventQueue queue) {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        queue.pending.drainTo(batch, batchSize);
+        if (batch.isEmpty()) return false;
+
+        try {
+            write(eventId, batch);
+        } catch (RuntimeException e) {
+            log.error("Burst admission batch for event {} failed", eventId, e);
+            batch.stream().filter(t -> QUEUED.equals(t.status)).forEach(t -> t.reject("Inscription impossible"));
+        } finally {
+            queue.processed += batch.size();
+        }
+        return true;
+    }
+
+    private void write(Long eventId, List<Ticket> batch) {
+        // Duplicates within the batch or already in the table are rejected up front,
+        // so the batch insert only fails if a direct registration races it.
+        Map<Long, Ticket> byUser = new LinkedHashMap<>();
+        for (Ticket ticket : batch) {
+            if (byUser.putIfAbsent(ticket.userId, ticket) != null) ticket.reject(ALREADY_REGISTERED);
+        }
+        registrationRepository.findRegisteredUserIds(eventId, byUser.keySet())
+                .forEach(userId -> byUser.remove(userId).reject(ALREADY_REGISTERED));
+        if (byUser.isEmpty()) return;
+
+        List<Ticket> accepted = new ArrayList<>(byUser.values());
+        List<Registration> registrations = accepted.stream().map(Ticket::newRegistration).toList();
+        try {
+            List<Registration> saved = waitingListService.admitAll(eventId, registrations,
+                    list -> tx.execute(status -> registrationRepository.saveAllAndFlush(list)));
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).complete(saved.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (Ticket ticket : accepted) {
+                try {
+                    ticket.complete(waitingListService.admit(ticket.newRegistration(), registrationService::insert));
+                } catch (RuntimeException single) {
+                    ticket.reject(single.getMessage());
+                }
+            }
+        }
+    }
+
+    private void purgeTickets() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < 1_000) return;
+        lastPurge = now;
+        tickets.values().removeIf(t -> t.completedAt > 0 && now - t.completedAt > ticketTtlMillis);
+    }
+
+    private static final class EventQueue {
+        final BlockingQueue<Ticket> pending;
+        long submitted;
+        volatile long processed;
+
+        EventQueue(int capacity) {
+            this.pending = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private static final class Ticket {
+        final String id;
+        final Long eventId;
+        final Long userId;
+        final RegistrationRequest request;
+        long sequence;
+
+        volatile String status = QUEUED;
+        volatile Long registrationId;
+        volatile String message;
+        volatile long completedAt;
+
+        Ticket(String id, Long eventId, Long userId, RegistrationRequest request) {
+            this.id = id;
+            this.eventId = eventId;
+            this.userId = userId;
+            this.request = request;
+        }
+
+        // A fresh entity per attempt: a rolled back batch leaves ids on the ones it used
+        Registration newRegistration() {
+            return RegistrationService.newRegistration(eventId, userId, request);
+        }
+
+        void complete(Registration registration) {
+            registrationId = registration.getId();
+            status = registration.getStatus();
+            completedAt = System.currentTimeMillis();
+        }
+
+        void reject(String reason) {
+            message = reason;
+            status = REJECTED;
+            completedAt = System.currentTimeMillis();
+        }
+
+        AdmissionTicket snapshot(EventQueue queue) {
+            String current = status;
+            long position = QUEUED.equals(current) && queue != null
+                    ? Math.max(1, sequence - queue.processed)
+                    : 0;
+            return new AdmissionTicket(id, eventId, current, position, registrationId, message);
+        }
+    }
+}
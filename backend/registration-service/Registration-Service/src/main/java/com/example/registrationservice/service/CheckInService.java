@@ -0,0 +1,228 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.dto.CheckInResult;
+import com.example.registrationservice.repository.RegistrationRepository;
+import com.example.registrationservice.util.LongBloomFilter;
+import com.example.registrationservice.util.LongHashSet;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Ticket validation at the venue door without touching the database per scan. Before doors open
+ * an event's "gate" is loaded: the tokens of its confirmed tickets in a primitive hash set, behind
+ * a Bloom filter that turns away most unknown tokens without probing the set, plus the tokens
+ * already checked in. Scans are answered from memory and the check-in times are written behind,
+ * in JDBC batches. Tickets issued or cancelled after loading are applied to the loaded gate.
+ */
+@Service
+public class CheckInService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckInService.class);
+
+    static final String ACCEPTED = "ACCEPTED";
+    static final String ALREADY_CHECKED_IN = "ALREADY_CHECKED_IN";
+    static final String INVALID = "INVALID";
+
+    private static final String RECORD_CHECK_IN = "UPDATE registrations SET checked_in_at = ? "
+            + "WHERE event_id = ? AND ticket_token = ? AND checked_in_at IS NULL";
+
+    private final RegistrationRepository registrationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    private final Map<Long, Gate> gates = new ConcurrentHashMap<>();
+    private final Queue<PendingCheckIn> pending = new ConcurrentLinkedQueue<>();
+
+    public CheckInService(RegistrationRepository registrationRepository,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${registrations.check-in.batch-size:500}") int batchSize) {
+        this.registrationRepository = registrationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads (or reloads) the event's gate; scanning also loads it on first use. A reload runs
+     * inside {@code compute}, so ticket updates wait for it, and it carries over what the old
+     * gate knows that the database may not yet: scans still queued for write-behind and tokens
+     * applied since the old load.
+     */
+    public Map<String, Object> preload(Long eventId) {
+        flush();
+        Gate gate = gates.compute(eventId, (id, previous) -> {
+            Gate fresh = load(id);
+            if (previous != null) {
+                synchronized (previous) {
+                    previous.valid.forEach(token -> {
+                        fresh.filter.add(token);
+                        fresh.valid.add(token);
+                    });
+                    previous.checkedIn.forEach(fresh.checkedIn::add);
+                    previous.replaced = true;
+                }
+            }
+            return fresh;
+        });
+        return attendance(eventId, gate);
+    }
+
+    public CheckInResult checkIn(Long eventId, String ticket) {
+        OptionalLong token = parseToken(eventId, ticket);
+        while (true) {
+            Gate gate = gates.computeIfAbsent(eventId, this::load);
+            synchronized (gate) {
+                // Read from the map before a reload swapped it out: its state has moved on
+                if (gate.replaced) continue;
+                if (token.isEmpty()
+                        || !gate.filter.mightContain(token.getAsLong())
+                        || !gate.valid.contains(token.getAsLong())) {
+                    return new CheckInResult(eventId, INVALID, gate.checkedIn.size());
+                }
+                if (!gate.checkedIn.add(token.getAsLong())) {
+                    return new CheckInResult(eventId, ALREADY_CHECKED_IN, gate.checkedIn.size());
+                }
+                pending.add(new PendingCheckIn(eventId, token.getAsLong(), LocalDateTime.now()));
+                return new CheckInResult(eventId, ACCEPTED, gate.checkedIn.size());
+            }
+        }
+    }
+
+    public Map<String, Object> getAttendance(Long eventId) {
+        return attendance(eventId, gates.computeIfAbsent(eventId, this::load));
+    }
+
+    /** A ticket was issued after the gate was loaded (late registration, promotion). */
+    public void onTicketIssued(Long eventId, long token) {
+        // Blocks while a load or reload of this gate runs in computeIfAbsent/compute, then
+        // applies to the gate that ended up in the map. Callers run after the ticket committed,
+        // so a load that missed the token is always followed by this update. The registration
+        // may have been cancelled since: checked here, under the same lock a revocation takes
+        // after its commit, so the token is either not added or removed again afterwards.
+        gates.computeIfPresent(eventId, (id, gate) -> {
+            if (!registrationRepository.existsByEventIdAndTicketTokenAndStatus(
+                    eventId, token, WaitingListService.CONFIRMED)) {
+                return gate;
+            }
+            synchronized (gate) {
+                gate.filter.add(token);
+                gate.valid.add(token);
+            }
+            return gate;
+        });
+    }
+
+    /** The registration holding {@code token} was cancelled. */
+    public void onTicketRevoked(Long eventId, long token) {
+        gates.computeIfPresent(eventId, (id, gate) -> {
+            synchronized (gate) {
+                gate.valid.remove(token);
+            }
+            return gate;
+        });
+    }
+
+    // ===== write-behind =====
+
+    @Scheduled(fixedDelayString = "${registrations.check-in.flush-interval-ms:500}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        List<PendingCheckIn> drained = new ArrayList<>(batchSize);
+        PendingCheckIn next;
+        while ((next = pending.poll()) != null) {
+            drained.add(next);
+            batch.add(new Object[]{Timestamp.valueOf(next.at), next.eventId, next.token});
+            if (batch.size() == batchSize || pending.isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(RECORD_CHECK_IN, batch);
+                } catch (DataAccessException e) {
+                    // Kept in memory and retried on the next run
+                    log.warn("Could not record {} check-in(s), will retry: {}", drained.size(), e.getMessage());
+                    pending.addAll(drained);
+                    return;
+                }
+                batch.clear();
+                drained.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ===== internals =====
+
+    private Gate load(Long eventId) {
+        List<RegistrationRepository.TicketState> tickets = registrationRepository.findTicketStates(eventId);
+        Gate gate = new Gate(tickets.size());
+        for (RegistrationRepository.TicketState ticket : tickets) {
+            gate.filter.add(ticket.getToken());
+            gate.valid.add(ticket.getToken());
+            if (ticket.getCheckedInAt() != null) gate.checkedIn.add(ticket.getToken());
+        }
+        log.info("Check-in gate of event {} loaded: {} ticket(s), {} already checked in",
+                eventId, gate.valid.size(), gate.checkedIn.size());
+        return gate;
+    }
+
+    private static Map<String, Object> attendance(Long eventId, Gate gate) {
+        synchronized (gate) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("eventId", eventId);
+            result.put("checkedIn", gate.checkedIn.size());
+            result.put("expected", gate.valid.size());
+            return result;
+        }
+    }
+
+    // Payload written by QrTicketService.ticketPayload: TKT1:<eventId>:<token in hex>
+    static OptionalLong parseToken(Long eventId, String ticket) {
+        String prefix = QrTicketService.PAYLOAD_PREFIX + eventId + ":";
+        if (ticket == null || !ticket.startsWith(prefix)) return OptionalLong.empty();
+        try {
+            return OptionalLong.of(Long.parseUnsignedLong(ticket.substring(prefix.length()).trim(), 16));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    private static final class Gate {
+        final LongBloomFilter filter;
+        final LongHashSet valid;
+        final LongHashSet checkedIn;
+        // Set under the gate's lock once a reload has merged this gate into its successor
+        boolean replaced;
+
+        Gate(int tickets) {
+            // Room for tickets issued after loading before the false positive rate climbs
+            this.filter = new LongBloomFilter(Math.max(1024, tickets * 2), 0.01);
+            this.valid = new LongHashSet(tickets);
+            this.checkedIn = new LongHashSet(tickets);
+        }
+    }
+
+    private static final class PendingCheckIn {
+        final Long eventId;
+        final long token;
+        final LocalDateTime at;
+
+        PendingCheckIn(Long eventId, long token, LocalDateTime at) {
+            this.eventId = eventId;
+            this.token = token;
+            this.at = at;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.dto.ExportJobStatus;
+import com.example.registrationservice.repository.RegistrationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registration exports materialized to local disk in the background, so organizers can
+ * download (and resume) the same file instead of regenerating it. A job is reused as long as
+ * the event's registrations are unchanged, measured by their count and latest {@code updatedAt}.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+    static final String PENDING = "PENDING";
+    static final String RUNNING = "RUNNING";
+    static final String READY = "READY";
+    static final String FAILED = "FAILED";
+
+    private final RegistrationService registrationService;
+    private final RegistrationRepository registrationRepository;
+    private final Path directory;
+    private final long ttlMillis;
+    private final ExecutorService workers;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Latest job per event, the only one that can be reused
+    private final Map<Long, Job> latestByEvent = new ConcurrentHashMap<>();
+
+    public ExportJobService(RegistrationService registrationService,
+                            RegistrationRepository registrationRepository,
+                            @Value("${registrations.export.dir:./data/exports}") String directory,
+                            @Value("${registrations.export.ttl-ms:86400000}") long ttlMillis,
+                            @Value("${registrations.export.threads:2}") int threads) {
+        this.registrationService = registrationService;
+        this.registrationRepository = registrationRepository;
+        this.directory = Path.of(directory);
+        this.ttlMillis = ttlMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "export-job-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Files of a previous run are unreachable, jobs only live in memory. */
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*.csv*")) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public ExportJobStatus submit(Long eventId) {
+        RegistrationRepository.ExportFingerprint current = registrationRepository.findExportFingerprint(eventId);
+        Fingerprint fingerprint = new Fingerprint(current.getTotal(), current.getLastUpdate());
+
+        synchronized (latestByEvent) {
+            Job latest = latestByEvent.get(eventId);
+            if (latest != null && latest.fingerprint.equals(fingerprint) && !FAILED.equals(latest.status)) {
+                return latest.snapshot();
+            }
+            Job job = new Job(UUID.randomUUID().toString(), eventId, fingerprint);
+            jobs.put(job.id, job);
+            latestByEvent.put(eventId, job);
+            workers.execute(() -> run(job));
+            return job.snapshot();
+        }
+    }
+
+    public Optional<ExportJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::snapshot);
+    }
+
+    /** The job's file, once it is READY. */
+    public Optional<Path> getFile(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !READY.equals(job.status)) return Optional.empty();
+        return Optional.of(job.file);
+    }
+
+    private void run(Job job) {
+        job.status = RUNNING;
+        Path tmp = job.file.resolveSibling(job.file.getFileName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                registrationService.exportEventRegistrations(job.eventId, out);
+            }
+            Files.move(tmp, job.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.sizeBytes = Files.size(job.file);
+            job.completedAt = LocalDateTime.now();
+            job.status = READY;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Export job {} for event {} failed: {}", job.id, job.eventId, e.getMessage());
+            job.message = "Export impossible";
+            job.completedAt = LocalDateTime.now();
+            job.status = FAILED;
+            deleteQuietly(tmp);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${registrations.export.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(ttlMillis * 1_000_000);
+        jobs.values().removeIf(job -> {
+            if (job.completedAt == null || job.completedAt.isAfter(cutoff)) return false;
+            latestByEvent.remove(job.eventId, job);
+            deleteQuietly(job.file);
+            return true;
+        });
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private final class Job {
+        final String id;
+        final Long eventId;
+        final Fingerprint fingerprint;
+        final Path file;
+        final LocalDateTime createdAt = LocalDateTime.now();
+
+        volatile String status = PENDING;
+        volatile long sizeBytes;
+        volatile LocalDateTime completedAt;
+        volatile String message;
+
+        Job(String id, Long eventId, Fingerprint fingerprint) {
+            this.id = id;
+            this.eventId = eventId;
+            this.fingerprint = fingerprint;
+            this.file = directory.resolve(id + ".csv");
+        }
+
+        ExportJobStatus snapshot() {
+            return new ExportJobStatus(id, eventId, status, fingerprint.rows, sizeBytes, createdAt, completedAt, message);
+        }
+    }
+
+    private static final class Fingerprint {
+        final long rows;
+        final LocalDateTime lastUpdate;
+
+        Fingerprint(long rows, LocalDateTime lastUpdate) {
+            this.rows = rows;
+            this.lastUpdate = lastUpdate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Fingerprint f && rows == f.rows && Objects.equals(lastUpdate, f.lastUpdate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rows, lastUpdate);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.registrationservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key} header.
+ * A retry with the same key gets the first result back instead of running the action again;
+ * a retry arriving while the first call is still running waits for it. Only successes are
+ * kept, a failed attempt can be retried with the same key. Keys expire after a TTL and the
+ * oldest are dropped beyond {@code max-keys}.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final int maxKeys;
+    private final long ttlMillis;
+
+    // Insertion-ordered, so the eldest entries are also the first to expire
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(@Value("${registrations.idempotency.max-keys:10000}") int maxKeys,
+                            @Value("${registrations.idempotency.ttl-ms:86400000}") long ttlMillis) {
+        this.maxKeys = maxKeys;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> action) {
+        CompletableFuture<Object> result;
+        boolean owner = false;
+        synchronized (this) {
+            purge(System.currentTimeMillis());
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(new CompletableFuture<>(), System.currentTimeMillis() + ttlMillis);
+                entries.put(key, entry);
+                owner = true;
+            }
+            result = entry.result;
+        }
+
+        if (owner) {
+            try {
+                result.complete(action.get());
+            } catch (RuntimeException | Error e) {
+                forget(key, result);
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return (T) result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private synchronized void forget(String key, CompletableFuture<Object> result) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.result == result) entries.remove(key);
+    }
+
+    private void purge(long now) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (entries.size() < maxKeys && eldest.expiresAt > now) break;
+            it.remove();
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Object> result;
+        final long expiresAt;
+
+        Entry(CompletableFuture<Object> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
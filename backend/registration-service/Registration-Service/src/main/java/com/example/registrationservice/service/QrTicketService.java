@@ -0,0 +1,162 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.repository.RegistrationRepository;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Renders QR code tickets off the registration path. Confirmed registrations are handed to a
+ * small worker pool with a bounded queue; each ticket gets a random token, is drawn as a PNG and
+ * stored under the SHA-256 of its bytes, then {@code qrCodeUrl} is filled in. The file name being
+ * the content hash, images never change and can be cached for good. Registrations the queue had
+ * no room for, or confirmed before a restart, are picked up by a periodic sweep.
+ */
+@Service
+public class QrTicketService {
+
+    private static final Logger log = LoggerFactory.getLogger(QrTicketService.class);
+
+    public static final String URL_PREFIX = "/api/registrations/qr/";
+    static final String PAYLOAD_PREFIX = "TKT1:";
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int SIZE = 300;
+
+    private final RegistrationRepository registrationRepository;
+    private final CheckInService checkInService;
+    private final Path directory;
+    private final ThreadPoolExecutor workers;
+    private final SecureRandom random = new SecureRandom();
+
+    // Registrations queued or being rendered, so the sweep does not submit them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public QrTicketService(RegistrationRepository registrationRepository,
+                           CheckInService checkInService,
+                           @Value("${registrations.qr.dir:./data/qr}") String directory,
+                           @Value("${registrations.qr.threads:2}") int threads,
+                           @Value("${registrations.qr.queue-capacity:1000}") int queueCapacity) {
+        this.registrationRepository = registrationRepository;
+        this.checkInService = checkInService;
+        this.directory = Path.of(directory);
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "qr-ticket-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** Queues the ticket of a confirmed registration; left to the sweep when the queue is full. */
+    public void submit(Long registrationId, Long eventId) {
+        if (!inFlight.add(registrationId)) return;
+        try {
+            workers.execute(() -> render(registrationId, eventId));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(registrationId);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${registrations.qr.sweep-interval-ms:10000}",
+            fixedDelayString = "${registrations.qr.sweep-interval-ms:10000}")
+    public void sweep() {
+        int room = workers.getQueue().remainingCapacity();
+        if (room == 0) return;
+        // In-flight registrations still match the query, ask for enough rows to see past them
+        registrationRepository.findPendingTickets(PageRequest.of(0, room + inFlight.size()))
+                .forEach(p -> submit(p.getId(), p.getEventId()));
+    }
+
+    /** The stored image for a content hash, if there is one. */
+    public Optional<Path> getImage(String hash) {
+        if (!HASH.matcher(hash).matches()) return Optional.empty();
+        Path file = imagePath(hash);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /** What the QR code of a ticket encodes: event id and token, read back at check-in. */
+    public static String ticketPayload(Long eventId, long token) {
+        return PAYLOAD_PREFIX + eventId + ":" + Long.toHexString(token);
+    }
+
+    private void render(Long registrationId, Long eventId) {
+        try {
+            long token = random.nextLong();
+            byte[] png = renderPng(ticketPayload(eventId, token));
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png));
+            store(hash, png);
+            if (registrationRepository.attachTicket(registrationId, token, URL_PREFIX + hash + ".png") > 0) {
+                checkInService.onTicketIssued(eventId, token);
+            }
+        } catch (IOException | WriterException | NoSuchAlgorithmException | RuntimeException e) {
+            log.warn("QR ticket of registration {} failed: {}", registrationId, e.getMessage());
+        } finally {
+            inFlight.remove(registrationId);
+        }
+    }
+
+    private static byte[] renderPng(String payload) throws WriterException, IOException {
+        BitMatrix matrix = new QRCodeWriter().encode(payload, BarcodeFormat.QR_CODE, SIZE, SIZE,
+                Map.of(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M, EncodeHintType.MARGIN, 2));
+        BufferedImage image = new BufferedImage(matrix.getWidth(), matrix.getHeight(), BufferedImage.TYPE_BYTE_BINARY);
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                image.setRGB(x, y, matrix.get(x, y) ? 0x000000 : 0xFFFFFF);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    // Same hash, same bytes: an existing file is kept as is
+    private void store(String hash, byte[] png) throws IOException {
+        Path file = imagePath(hash);
+        if (Files.exists(file)) return;
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), hash, ".tmp");
+        try {
+            Files.write(tmp, png);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Spread over 256 sub-directories by the first byte of the hash
+    private Path imagePath(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + ".png");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.repository.RegistrationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-event, per-status registration counts kept in memory, so organizer views and capacity
+ * checks no longer run a COUNT over the event's rows. Seeded with one GROUP BY before the
+ * service takes traffic, then moved by every write path once its transaction has committed,
+ * so a rolled back write never shows. Like the waiting lists, they assume a single
+ * registration-service instance.
+ */
+@Component
+public class RegistrationCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationCounters.class);
+
+    // Always present in the counts returned, even at zero
+    private static final List<String> STATUSES =
+            List.of(WaitingListService.CONFIRMED, WaitingListService.WAITING_LIST, RegistrationService.CANCELLED);
+
+    private final RegistrationRepository registrationRepository;
+
+    private final Map<Long, Map<String, LongAdder>> counters = new ConcurrentHashMap<>();
+
+    public RegistrationCounters(RegistrationRepository registrationRepository) {
+        this.registrationRepository = registrationRepository;
+    }
+
+    public long count(Long eventId, String status) {
+        Map<String, LongAdder> byStatus = counters.get(eventId);
+        LongAdder adder = byStatus == null ? null : byStatus.get(status);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /** Counts by status for each of {@code eventIds}, in the order given. */
+    public Map<Long, Map<String, Long>> counts(Collection<Long> eventIds) {
+        Map<Long, Map<String, Long>> result = new LinkedHashMap<>();
+        for (Long eventId : eventIds) {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            STATUSES.forEach(status -> byStatus.put(status, 0L));
+            Map<String, LongAdder> adders = counters.get(eventId);
+            if (adders != null) {
+                adders.forEach((status, adder) -> byStatus.put(status, adder.sum()));
+            }
+            result.put(eventId, byStatus);
+        }
+        return result;
+    }
+
+    /** {@code n} new registrations in {@code status}. */
+    public void added(Long eventId, String status, long n) {
+        afterCommit(() -> adder(eventId, status).add(n));
+    }
+
+    /** One registration went from {@code from} to {@code to}. */
+    public void moved(Long eventId, String from, String to) {
+        if (Objects.equals(from, to)) return;
+        afterCommit(() -> {
+            if (from != null) adder(eventId, from).decrement();
+            adder(eventId, to).increment();
+        });
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, Map<String, LongAdder>> seeded = new HashMap<>();
+        registrationRepository.countGroupedByEventAndStatus().forEach(c ->
+                seeded.computeIfAbsent(c.getEventId(), id -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(c.getStatus(), s -> new LongAdder())
+                        .add(c.getCount()));
+        counters.clear();
+        counters.putAll(seeded);
+        log.info("Registration counters seeded for {} event(s)", seeded.size());
+    }
+
+    private LongAdder adder(Long eventId, String status) {
+        return counters.computeIfAbsent(eventId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> new LongAdder());
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.model.Registration;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes registrations as CSV rows, straight to the target writer: every field is quoted,
+ * embedded quotes are doubled, and nothing is buffered per row.
+ */
+public final class RegistrationCsvWriter {
+
+    static final String HEADER = "Nom,Email,Téléphone,Date d'inscription,Statut\n";
+
+    private RegistrationCsvWriter() {
+    }
+
+    public static void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+    }
+
+    public static void writeRow(Writer out, Registration r) throws IOException {
+        field(out, r.getParticipantName());
+        out.write(',');
+        field(out, r.getParticipantEmail());
+        out.write(',');
+        field(out, r.getParticipantPhone() != null ? r.getParticipantPhone() : "");
+        out.write(',');
+        field(out, r.getRegistrationDate() != null ? r.getRegistrationDate().toString() : "");
+        out.write(',');
+        field(out, r.getStatus());
+        out.write('\n');
+    }
+
+    private static void field(Writer out, String value) throws IOException {
+        out.write('"');
+        if (value != null) {
+            int start = 0;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == '"') {
+                    out.write(value, start, i - start + 1);
+                    out.write('"');
+                    start = i + 1;
+                }
+            }
+            out.write(value, start, value.length() - start);
+        }
+        out.write('"');
+    }
+}
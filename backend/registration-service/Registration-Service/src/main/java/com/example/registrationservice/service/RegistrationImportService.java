@@ -0,0 +1,293 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.dto.ImportResult;
+import com.example.registrationservice.dto.ImportRow;
+import com.example.registrationservice.dto.RegistrationRequest;
+import com.example.registrationservice.model.Registration;
+import com.example.registrationservice.repository.RegistrationRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Bulk import of attendee lists (CSV or a JSON array), read from the request body as it arrives.
+ * Rows are validated, deduplicated against the event's existing registrations with an in-memory
+ * set, and stored through the waiting list in transactions of {@code batch-size} rows, which
+ * Hibernate sends as JDBC batches.
+ */
+@Service
+public class RegistrationImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final RegistrationRepository registrationRepository;
+    private final WaitingListService waitingListService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RegistrationImportService(RegistrationRepository registrationRepository,
+                                     WaitingListService waitingListService,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${registrations.import.batch-size:1000}") int batchSize) {
+        this.registrationRepository = registrationRepository;
+        this.waitingListService = waitingListService;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /** CSV with a header line naming the columns: userId, participantName, participantEmail, participantPhone, notes. */
+    public ImportResult importCsv(Long eventId, InputStream body) throws IOException {
+        Run run = new Run(eventId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) return run.result();
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = parseCsvLine(stripBom(headerLine));
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        if (!columns.containsKey("userid")) {
+            throw new IllegalArgumentException("Colonne userId manquante");
+        }
+
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            List<String> fields = parseCsvLine(line);
+            ImportRow row = new ImportRow();
+            String userId = column(fields, columns, "userid");
+            try {
+                row.userId = userId == null || userId.isBlank() ? null : Long.valueOf(userId.trim());
+            } catch (NumberFormatException e) {
+                run.received++;
+                run.invalid(lineNumber, "userId invalide");
+                continue;
+            }
+            row.participantName = column(fields, columns, "participantname");
+            row.participantEmail = column(fields, columns, "participantemail");
+            row.participantPhone = column(fields, columns, "participantphone");
+            row.notes = column(fields, columns, "notes");
+            run.add(lineNumber, row);
+        }
+        run.flush();
+        return run.result();
+    }
+
+    /**
+     * A JSON array of {@link ImportRow} objects, parsed one element at a time. An element that does
+     * not map to a row is reported as invalid; if the array itself is malformed part way through,
+     * the rows read so far are still stored and the result says where the import stopped.
+     */
+    public ImportResult importJson(Long eventId, InputStream body) throws IOException {
+        Run run = new Run(eventId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Un tableau JSON est attendu");
+            }
+            int index = 0;
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (token == null) throw new JsonParseException(parser, "Unexpected end of input");
+                    // Read as a tree first: a type mismatch then leaves the parser on the next element
+                    JsonNode element = parser.readValueAsTree();
+                    index++;
+                    ImportRow row;
+                    try {
+                        row = objectMapper.treeToValue(element, ImportRow.class);
+                    } catch (JsonProcessingException e) {
+                        run.received++;
+                        run.invalid(index, "élément JSON invalide");
+                        continue;
+                    }
+                    run.add(index, row);
+                }
+            } catch (JsonParseException e) {
+                run.stopped(index);
+            }
+        }
+        run.flush();
+        return run.result();
+    }
+
+    // ===== one import =====
+
+    private final class Run {
+        final Long eventId;
+        final Set<Long> knownUsers;
+        final List<Registration> pending = new ArrayList<>(batchSize);
+        final List<String> errors = new ArrayList<>();
+        long received;
+        long confirmed;
+        long waitingList;
+        long duplicates;
+        long invalid;
+
+        Run(Long eventId) {
+            this.eventId = eventId;
+            this.knownUsers = new HashSet<>(registrationRepository.findUserIdsByEventId(eventId));
+        }
+
+        void add(int position, ImportRow row) {
+            received++;
+            String problem = validate(row);
+            if (problem != null) {
+                invalid(position, problem);
+                return;
+            }
+            if (!knownUsers.add(row.userId)) {
+                duplicates++;
+                return;
+            }
+            pending.add(toRegistration(row));
+            if (pending.size() == batchSize) flush();
+        }
+
+        void invalid(int position, String problem) {
+            invalid++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Ligne " + position + " : " + problem);
+            }
+        }
+
+        // Nothing can be read past this point; the rows before it are kept
+        void stopped(int lastRead) {
+            errors.add("JSON mal formé après l'élément " + lastRead + " : import interrompu");
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            List<Registration> batch = new ArrayList<>(pending);
+            pending.clear();
+            try {
+                count(waitingListService.admitAll(eventId, batch, list -> tx.execute(status -> {
+                    list.forEach(entityManager::persist);
+                    // Inserts go out as JDBC batches of hibernate.jdbc.batch_size; the context is
+                    // cleared so a long import does not accumulate managed entities. Flushing
+                    // through the repository translates a constraint violation for the fallback.
+                    registrationRepository.flush();
+                    entityManager.clear();
+                    return list;
+                })));
+            } catch (DataIntegrityViolationException e) {
+                // Someone registered concurrently: retry the batch row by row with fresh entities.
+                // Only the (eventId, userId) key makes a row a duplicate; any other failure ends the import.
+                for (Registration failed : batch) {
+                    try {
+                        count(List.of(waitingListService.admit(copy(failed), registrationRepository::saveAndFlush)));
+                    } catch (DataIntegrityViolationException single) {
+                        if (!RegistrationService.isDuplicate(single)) throw single;
+                        duplicates++;
+                    }
+                }
+            }
+        }
+
+        void count(List<Registration> saved) {
+            for (Registration r : saved) {
+                if (WaitingListService.WAITING_LIST.equals(r.getStatus())) {
+                    waitingList++;
+                } else {
+                    confirmed++;
+                }
+            }
+        }
+
+        Registration toRegistration(ImportRow row) {
+            RegistrationRequest req = new RegistrationRequest();
+            req.participantName = row.participantName.trim();
+            req.participantEmail = row.participantEmail.trim();
+            req.participantPhone = blankToNull(row.participantPhone);
+            req.notes = blankToNull(row.notes);
+            return RegistrationService.newRegistration(eventId, row.userId, req);
+        }
+
+        Registration copy(Registration r) {
+            RegistrationRequest req = new RegistrationRequest();
+            req.participantName = r.getParticipantName();
+            req.participantEmail = r.getParticipantEmail();
+            req.participantPhone = r.getParticipantPhone();
+            req.notes = r.getNotes();
+            return RegistrationService.newRegistration(eventId, r.getUserId(), req);
+        }
+
+        ImportResult result() {
+            return new ImportResult(received, confirmed, waitingList, duplicates, invalid, errors);
+        }
+    }
+
+    private static String validate(ImportRow row) {
+        if (row == null) return "ligne vide";
+        if (row.userId == null) return "userId manquant";
+        if (row.participantName == null || row.participantName.isBlank()) return "participantName manquant";
+        if (row.participantEmail == null || row.participantEmail.isBlank()) return "participantEmail manquant";
+        if (row.participantEmail.indexOf('@') < 1) return "participantEmail invalide";
+        return null;
+    }
+
+    // ===== CSV =====
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    // Comma separated, fields optionally quoted with "" as an escaped quote (no line breaks inside fields)
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -3,27 +3,62 @@ package com.example.registrationservice.service;
 import com.example.registrationservice.dto.RegistrationRequest;
 import com.example.registrationservice.model.Registration;
 import com.example.registrationservice.repository.RegistrationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class RegistrationService {
 
-    private final RegistrationRepository registrationRepository;
+    static final String CANCELLED = "CANCELLED";
 
-    public RegistrationService(RegistrationRepository registrationRepository) {
+    private final RegistrationRepository registrationRepository;
+    private final WaitingListService waitingListService;
+    private final RegistrationCounters registrationCounters;
+    private final SeatSyncOutbox seatSyncOutbox;
+    private final CheckInService checkInService;
+    private final TransactionTemplate tx;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RegistrationService(RegistrationRepository registrationRepository,
+                               WaitingListService waitingListService,
+                               RegistrationCounters registrationCounters,
+                               SeatSyncOutbox seatSyncOutbox,
+                               CheckInService checkInService,
+                               PlatformTransactionManager transactionManager) {
         this.registrationRepository = registrationRepository;
+        this.waitingListService = waitingListService;
+        this.registrationCounters = registrationCounters;
+        this.seatSyncOutbox = seatSyncOutbox;
+        this.checkInService = checkInService;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
     // ===== REGISTER =====
+    // Single INSERT: duplicates are rejected by the (eventId, userId) unique constraint.
+    // Full events put the registration on the waiting list instead of confirming it.
     public Registration registerToEvent(Long eventId, Long userId, RegistrationRequest req) {
+        return waitingListService.admit(newRegistration(eventId, userId, req), this::insert);
+    }
 
-        registrationRepository.findByEventIdAndUserId(eventId, userId)
-                .ifPresent(r -> {
-                    throw new RuntimeException("Utilisateur déjà inscrit à cet événement");
-                });
-
+    static Registration newRegistration(Long eventId, Long userId, RegistrationRequest req) {
         Registration registration = new Registration();
         registration.setEventId(eventId);
         registration.setUserId(userId);
@@ -32,10 +67,30 @@ public class RegistrationService {
         registration.setParticipantEmail(req.participantEmail);
         registration.setParticipantPhone(req.participantPhone);
         registration.setNotes(req.notes);
+        return registration;
+    }
 
-        registration.setStatus("CONFIRMED");
+    Registration insert(Registration registration) {
+        try {
+            return registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicate(e)) {
+                throw new RuntimeException("Utilisateur déjà inscrit à cet événement");
+            }
+            throw e;
+        }
+    }
 
-        return registrationRepository.save(registration);
+    // Only the (eventId, userId) unique key means "already registered"; any other violation is a real error
+    static boolean isDuplicate(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(Registration.UNIQUE_EVENT_USER)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     // ===== CANCEL =====
@@ -48,8 +103,33 @@ public class RegistrationService {
             throw new RuntimeException("Accès refusé");
         }
 
-        reg.setStatus("CANCELLED");
-        registrationRepository.save(reg);
+        // Only the status moves: a ticket attached since the read is not written back over
+        Long eventId = reg.getEventId();
+        // As stored once cancelled: a ticket attached after the read above must be revoked too
+        Long[] ticketToken = new Long[1];
+        String previousStatus;
+        while (true) {
+            previousStatus = reg.getStatus();
+            if (CANCELLED.equals(previousStatus)) return;
+            String expected = previousStatus;
+            boolean cancelled = Boolean.TRUE.equals(tx.execute(status -> {
+                if (registrationRepository.cancel(registrationId, expected, LocalDateTime.now()) == 0) return false;
+                if (WaitingListService.CONFIRMED.equals(expected)) {
+                    seatSyncOutbox.record(eventId, -1);
+                }
+                ticketToken[0] = registrationRepository.findTicketTokenById(registrationId);
+                return true;
+            }));
+            if (cancelled) break;
+            // Promoted or cancelled meanwhile: decide again on the current status
+            reg = registrationRepository.findById(registrationId)
+                    .orElseThrow(() -> new RuntimeException("Inscription non trouvée"));
+        }
+        registrationCounters.moved(eventId, previousStatus, CANCELLED);
+        if (ticketToken[0] != null) {
+            checkInService.onTicketRevoked(eventId, ticketToken[0]);
+        }
+        waitingListService.onCancelled(reg, previousStatus);
     }
 
     // ===== READ =====
@@ -60,5 +140,33 @@ public class RegistrationService {
     public List<Registration> getEventRegistrations(Long eventId) {
         return registrationRepository.findByEventId(eventId);
     }
-}
 
+    /** Up to {@code limit} confirmed attendees of the event with a user id above {@code after}, in order. */
+    public List<Long> getConfirmedUserIds(Long eventId, long after, int limit) {
+        return registrationRepository.findConfirmedUserIdsAfter(eventId, after, PageRequest.of(0, limit));
+    }
+
+    public Map<Long, Map<String, Long>> getRegistrationCounts(Collection<Long> eventIds) {
+        return registrationCounters.counts(eventIds);
+    }
+
+    // ===== EXPORT =====
+    // Rows are streamed from a cursor and detached once written, so memory stays flat
+    @Transactional(readOnly = true)
+    public void exportEventRegistrations(Long eventId, Writer out) throws IOException {
+        RegistrationCsvWriter.writeHeader(out);
+        try (Stream<Registration> rows = registrationRepository.streamByEventId(eventId)) {
+            rows.forEach(r -> {
+                try {
+                    RegistrationCsvWriter.writeRow(out, r);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(r);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+}
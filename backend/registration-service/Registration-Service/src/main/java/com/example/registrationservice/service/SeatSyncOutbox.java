@@ -0,0 +1,143 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.client.EventServiceClient;
+import com.example.registrationservice.model.SeatOutboxEntry;
+import com.example.registrationservice.repository.SeatOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Keeps {@code Event.currentParticipants} in event-service in step with confirmed registrations
+ * without calling it on the registration path. Each change of confirmed seats is recorded in the
+ * {@code seat_outbox} table by the transaction that made it; a relay periodically sums pending
+ * entries per event and sends the net deltas in one batch call. Failed calls are retried with
+ * exponential backoff.
+ * <p>
+ * Each batch gets an id stamped on its entries before it is sent, and every delta carries
+ * {@code <batch>:<eventId>} as its dedupe key: a failed batch is resent with the same entries and keys,
+ * and event-service, which records the keys it applied, does not apply a delta twice when only the reply
+ * was lost. Applied entries are deleted; entries event-service refused (unknown or archived event,
+ * counter out of range) are parked with its reason for an operator, never silently dropped.
+ */
+@Service
+public class SeatSyncOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatSyncOutbox.class);
+
+    private final SeatOutboxRepository outboxRepository;
+    private final EventServiceClient eventServiceClient;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final long maxBackoffMillis;
+
+    // Only touched by the scheduler thread
+    private int failures;
+    private long retryAt;
+
+    public SeatSyncOutbox(SeatOutboxRepository outboxRepository,
+                          EventServiceClient eventServiceClient,
+                          @Value("${registrations.seat-sync.batch-size:1000}") int batchSize,
+                          @Value("${registrations.seat-sync.interval-ms:1000}") long intervalMillis,
+                          @Value("${registrations.seat-sync.max-backoff-ms:60000}") long maxBackoffMillis) {
+        this.outboxRepository = outboxRepository;
+        this.eventServiceClient = eventServiceClient;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /** Records a change of confirmed seats; must run inside the transaction that caused it. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long eventId, int seats) {
+        if (seats != 0) {
+            outboxRepository.save(new SeatOutboxEntry(eventId, seats));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${registrations.seat-sync.interval-ms:1000}")
+    public void relay() {
+        long now = System.currentTimeMillis();
+        if (now < retryAt) return;
+        try {
+            List<SeatOutboxEntry> batch;
+            do {
+                batch = nextBatch();
+                if (batch.isEmpty()) break;
+                push(batch);
+            } while (batch.size() == batchSize);
+            failures = 0;
+        } catch (RestClientException e) {
+            failures++;
+            long backoff = Math.min(maxBackoffMillis, intervalMillis << Math.min(failures, 16));
+            retryAt = now + backoff;
+            log.warn("Seat sync with event-service failed ({} in a row), retrying in {} ms: {}",
+                    failures, backoff, e.getMessage());
+        }
+    }
+
+    // The batch left by a failed delivery if any, so it is resent unchanged; otherwise the oldest entries
+    private List<SeatOutboxEntry> nextBatch() {
+        List<SeatOutboxEntry> unfinished = outboxRepository.findByBatchIsNotNullAndParkedAtIsNullOrderByIdAsc();
+        if (!unfinished.isEmpty()) return unfinished;
+
+        List<SeatOutboxEntry> fresh = outboxRepository.findByBatchIsNullAndParkedAtIsNullOrderByIdAsc(
+                PageRequest.of(0, batchSize));
+        if (fresh.isEmpty()) return fresh;
+        // Not the bare id range: ids restart with an in-memory database, applied keys outlive it
+        String batch = UUID.randomUUID().toString();
+        outboxRepository.assignBatch(batch, fresh.stream().map(SeatOutboxEntry::getId).toList());
+        return outboxRepository.findByBatchIsNotNullAndParkedAtIsNullOrderByIdAsc();
+    }
+
+    private void push(List<SeatOutboxEntry> batch) {
+        Map<Long, Integer> netSeats = new LinkedHashMap<>();
+        Map<Long, List<Long>> entryIds = new HashMap<>();
+        for (SeatOutboxEntry entry : batch) {
+            netSeats.merge(entry.getEventId(), entry.getSeats(), Integer::sum);
+            entryIds.computeIfAbsent(entry.getEventId(), k -> new ArrayList<>()).add(entry.getId());
+        }
+        List<Long> done = new ArrayList<>();
+        List<EventServiceClient.SeatChange> changes = new ArrayList<>();
+        netSeats.forEach((eventId, seats) -> {
+            if (seats == 0) {
+                done.addAll(entryIds.get(eventId));
+            } else {
+                String dedupeKey = batch.get(0).getBatch() + ":" + eventId;
+                changes.add(new EventServiceClient.SeatChange(eventId, seats, dedupeKey));
+            }
+        });
+
+        if (!changes.isEmpty()) {
+            for (EventServiceClient.SeatChangeResult result : eventServiceClient.applySeatChanges(changes)) {
+                List<Long> ids = entryIds.get(result.eventId);
+                if (ids == null) continue;
+                if (result.applied) {
+                    done.addAll(ids);
+                } else {
+                    // Refused again if resent as is: parked with the reason rather than dropped
+                    log.warn("event-service refused {} seat(s) for event {}, {} outbox entr(y/ies) parked: {}",
+                            result.seats, result.eventId, ids.size(), result.message);
+                    outboxRepository.park(ids, truncate(result.message), LocalDateTime.now());
+                }
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(done);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 255 ? message : message.substring(0, 255);
+    }
+}
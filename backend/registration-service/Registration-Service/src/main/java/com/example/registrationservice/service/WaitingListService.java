@@ -0,0 +1,225 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.client.EventServiceClient;
+import com.example.registrationservice.model.Registration;
+import com.example.registrationservice.repository.RegistrationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-event admission: registrations are confirmed while the event has room and queued
+ * as WAITING_LIST once it is full. Each event keeps its waiters in a set ordered by
+ * (registrationDate, id), so enqueue, removal on cancellation and promotion of the head
+ * are O(log n). Cancelling a confirmed seat promotes waiters in the background.
+ * The sets are rebuilt from the table on startup; like the table, they assume a single
+ * registration-service instance.
+ */
+@Service
+public class WaitingListService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingListService.class);
+
+    static final String CONFIRMED = "CONFIRMED";
+    static final String WAITING_LIST = "WAITING_LIST";
+
+    private final RegistrationRepository registrationRepository;
+    private final EventServiceClient eventServiceClient;
+    private final RegistrationCounters registrationCounters;
+    private final SeatSyncOutbox seatSyncOutbox;
+    private final QrTicketService qrTicketService;
+    private final TransactionTemplate tx;
+
+    private final Map<Long, EventLine> lines = new ConcurrentHashMap<>();
+    private final ExecutorService promoter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "waiting-list-promoter");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public WaitingListService(RegistrationRepository registrationRepository,
+                              EventServiceClient eventServiceClient,
+                              RegistrationCounters registrationCounters,
+                              SeatSyncOutbox seatSyncOutbox,
+                              QrTicketService qrTicketService,
+                              PlatformTransactionManager transactionManager) {
+        this.registrationRepository = registrationRepository;
+        this.eventServiceClient = eventServiceClient;
+        this.registrationCounters = registrationCounters;
+        this.seatSyncOutbox = seatSyncOutbox;
+        this.qrTicketService = qrTicketService;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sets the status of a new registration (CONFIRMED or WAITING_LIST) and stores it with
+     * {@code insert}. Registrations for the same event are admitted one at a time.
+     */
+    public Registration admit(Registration registration, UnaryOperator<Registration> insert) {
+        return admitAll(registration.getEventId(), List.of(registration),
+                batch -> List.of(insert.apply(batch.get(0)))).get(0);
+    }
+
+    /**
+     * Batch variant of {@link #admit}: statuses are assigned in list order and the whole batch
+     * is stored by one {@code insertAll} call, in a transaction that also records the seats
+     * taken. If it throws, nothing is admitted.
+     */
+    public List<Registration> admitAll(Long eventId, List<Registration> registrations,
+                                       UnaryOperator<List<Registration>> insertAll) {
+        Integer capacity = eventServiceClient.getCapacity(eventId);
+        EventLine line = line(eventId);
+        synchronized (line) {
+            int confirmed = line.confirmed;
+            // Nobody jumps the queue while earlier waiters are still to be promoted
+            boolean queueing = !line.waiting.isEmpty();
+            for (Registration registration : registrations) {
+                boolean full = capacity != null && (queueing || confirmed >= capacity);
+                registration.setStatus(full ? WAITING_LIST : CONFIRMED);
+                if (full) {
+                    queueing = true;
+                } else {
+                    confirmed++;
+                }
+            }
+
+            // The seats taken reach event-service through the outbox, written with the rows
+            int seats = confirmed - line.confirmed;
+            List<Registration> saved = tx.execute(status -> {
+                List<Registration> stored = insertAll.apply(registrations);
+                seatSyncOutbox.record(eventId, seats);
+                return stored;
+            });
+            int newlyConfirmed = 0;
+            for (Registration registration : saved) {
+                if (WAITING_LIST.equals(registration.getStatus())) {
+                    line.waiting.add(new Waiter(registration.getId(), registration.getRegistrationDate()));
+                } else {
+                    line.confirmed++;
+                    newlyConfirmed++;
+                    qrTicketService.submit(registration.getId(), eventId);
+                }
+            }
+            if (newlyConfirmed > 0) registrationCounters.added(eventId, CONFIRMED, newlyConfirmed);
+            if (saved.size() > newlyConfirmed) registrationCounters.added(eventId, WAITING_LIST, saved.size() - newlyConfirmed);
+            return saved;
+        }
+    }
+
+    /** To be called once {@code registration}, previously in {@code previousStatus}, is CANCELLED. */
+    public void onCancelled(Registration registration, String previousStatus) {
+        EventLine line = line(registration.getEventId());
+        synchronized (line) {
+            if (WAITING_LIST.equals(previousStatus)) {
+                line.waiting.remove(new Waiter(registration.getId(), registration.getRegistrationDate()));
+                return;
+            }
+            if (!CONFIRMED.equals(previousStatus)) return;
+            line.confirmed = Math.max(0, line.confirmed - 1);
+            if (line.waiting.isEmpty()) return;
+        }
+        promoter.execute(() -> promote(registration.getEventId()));
+    }
+
+    /** Confirms waiters, head first, while the event has room. Returns how many were promoted. */
+    public int promote(Long eventId) {
+        Integer capacity = eventServiceClient.getCapacity(eventId);
+        EventLine line = line(eventId);
+        int promoted = 0;
+        synchronized (line) {
+            while (!line.waiting.isEmpty() && (capacity == null || line.confirmed < capacity)) {
+                // Dequeued only once the UPDATE has committed, or found the row no longer waiting:
+                // if it throws, the waiter keeps its place for the next promotion
+                Waiter head = line.waiting.first();
+                boolean confirmed = promote(eventId, head.id);
+                line.waiting.remove(head);
+                if (confirmed) {
+                    registrationCounters.moved(eventId, WAITING_LIST, CONFIRMED);
+                    qrTicketService.submit(head.id, eventId);
+                    line.confirmed++;
+                    promoted++;
+                }
+            }
+        }
+        return promoted;
+    }
+
+    private boolean promote(Long eventId, Long registrationId) {
+        return Boolean.TRUE.equals(tx.execute(status -> {
+            if (registrationRepository.promote(registrationId, LocalDateTime.now()) == 0) return false;
+            seatSyncOutbox.record(eventId, 1);
+            return true;
+        }));
+    }
+
+    public int waitingCount(Long eventId) {
+        EventLine line = line(eventId);
+        synchronized (line) {
+            return line.waiting.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, NavigableSet<Waiter>> waiting = new HashMap<>();
+        registrationRepository.findWaitingEntries().forEach(w ->
+                waiting.computeIfAbsent(w.getEventId(), k -> new TreeSet<>(Waiter.ORDER))
+                        .add(new Waiter(w.getId(), w.getRegistrationDate())));
+
+        lines.clear();
+        waiting.forEach((eventId, waiters) -> {
+            EventLine line = line(eventId);
+            synchronized (line) {
+                line.waiting.addAll(waiters);
+            }
+        });
+        log.info("Waiting lists rebuilt: {} waiter(s) across {} event(s)",
+                waiting.values().stream().mapToInt(Set::size).sum(), waiting.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promoter.shutdown();
+    }
+
+    private EventLine line(Long eventId) {
+        return lines.computeIfAbsent(eventId, id -> new EventLine(
+                (int) registrationCounters.count(id, CONFIRMED)));
+    }
+
+    private static final class EventLine {
+        int confirmed;
+        final NavigableSet<Waiter> waiting = new TreeSet<>(Waiter.ORDER);
+
+        EventLine(int confirmed) {
+            this.confirmed = confirmed;
+        }
+    }
+
+    private static final class Waiter {
+        static final Comparator<Waiter> ORDER =
+                Comparator.comparing((Waiter w) -> w.registrationDate).thenComparing(w -> w.id);
+
+        final Long id;
+        final LocalDateTime registrationDate;
+
+        Waiter(Long id, LocalDateTime registrationDate) {
+            this.id = id;
+            // As stored by the column, so entities fresh from save() and rows read back compare equal
+            this.registrationDate = registrationDate.truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.registrationservice.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive longs with open addressing and linear probing: one {@code long[]}, no boxing,
+ * no per-entry objects. Keeps the load factor at or below one half; removal shifts the following
+ * entries back so lookups never cross tombstones. Not thread-safe.
+ */
+public final class LongHashSet {
+
+    // 0 marks a free slot, so the key 0 itself is tracked apart
+    private long[] slots;
+    private boolean containsZero;
+    private int size;
+
+    public LongHashSet(int expectedSize) {
+        slots = new long[capacityFor(expectedSize)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) return containsZero;
+        int mask = slots.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == key) return true;
+            if (slot == 0) return false;
+        }
+    }
+
+    /** Returns false if the key was already present. */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        int mask = slots.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == key) return false;
+            if (slot == 0) {
+                slots[i] = key;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    /** Returns false if the key was not present. */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZero) return false;
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int i = index(key, mask);
+        while (slots[i] != key) {
+            if (slots[i] == 0) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = 0;
+        size--;
+
+        // Move back any following entry whose probe sequence ran through the freed slot
+        int free = i;
+        for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int home = index(slots[j], mask);
+            if (((j - home) & mask) >= ((j - free) & mask)) {
+                slots[free] = slots[j];
+                slots[j] = 0;
+                free = j;
+            }
+        }
+        return true;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (containsZero) action.accept(0);
+        for (long key : slots) {
+            if (key != 0) action.accept(key);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        slots = new long[capacity];
+        int mask = capacity - 1;
+        for (long key : old) {
+            if (key == 0) continue;
+            int i = index(key, mask);
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = key;
+        }
+    }
+
+    private static int index(long key, int mask) {
+        return (int) mix(key) & mask;
+    }
+
+    // Finalizer of MurmurHash3: spreads sequential or clustered keys over the table
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2L) capacity <<= 1;
+        return capacity;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.registrationservice.service;
+
+import com.example.registrationservice.client.EventServiceClient;
+import com.example.registrationservice.model.Registration;
+import com.example.registrationservice.repository.RegistrationRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Seeds 101k rows: run with ./gradlew benchmark, not part of the default test task
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "eureka.client.enabled=false"
+})
+class WaitingListBenchmarkTest {
+
+    private static final long EVENT_ID = 42L;
+    private static final int CAPACITY = 1_000;
+    private static final int WAITLISTED = 100_000;
+    private static final int CANCELLATIONS = 500;
+    private static final int BASELINE_RUNS = 5;
+
+    @MockBean
+    private EventServiceClient eventServiceClient;
+
+    @Autowired
+    private WaitingListService waitingListService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private RegistrationCounters registrationCounters;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void promotionLatencyWith100kWaitlisted() {
+        when(eventServiceClient.getCapacity(anyLong())).thenReturn(CAPACITY);
+        seed();
+        // Rows were inserted behind the service's back
+        registrationCounters.rebuild();
+
+        long rebuildStart = System.nanoTime();
+        waitingListService.rebuild();
+        report("rebuild from table", System.nanoTime() - rebuildStart);
+        assertEquals(WAITLISTED, waitingListService.waitingCount(EVENT_ID));
+
+        // Cancel confirmed seats one by one; each frees exactly one place for the head of the list
+        List<Long> confirmed = registrationRepository.findByEventId(EVENT_ID).stream()
+                .filter(r -> "CONFIRMED".equals(r.getStatus()))
+                .map(Registration::getId)
+                .limit(CANCELLATIONS)
+                .toList();
+        long[] latencies = new long[CANCELLATIONS];
+        for (int i = 0; i < CANCELLATIONS; i++) {
+            int expected = WAITLISTED - i - 1;
+            long start = System.nanoTime();
+            registrationService.cancelRegistration(confirmed.get(i), 0L, "ADMIN");
+            while (waitingListService.waitingCount(EVENT_ID) != expected) {
+                Thread.onSpinWait();
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        report("cancel -> promotion p50", latencies[CANCELLATIONS / 2]);
+        report("cancel -> promotion p99", latencies[CANCELLATIONS * 99 / 100]);
+        report("cancel -> promotion max", latencies[CANCELLATIONS - 1]);
+
+        // FIFO: the earliest waiters were the ones promoted
+        List<Registration> rows = registrationRepository.findByEventId(EVENT_ID);
+        rows.sort(Comparator.comparing(Registration::getRegistrationDate).thenComparing(Registration::getId));
+        List<Registration> waitlistedInOrder = rows.stream().skip(CAPACITY).toList();
+        for (int i = 0; i < waitlistedInOrder.size(); i++) {
+            String expected = i < CANCELLATIONS ? "CONFIRMED" : "WAITING_LIST";
+            assertEquals(expected, waitlistedInOrder.get(i).getStatus());
+        }
+        assertEquals(CAPACITY, rows.stream().filter(r -> "CONFIRMED".equals(r.getStatus())).count());
+
+        // Counters followed every cancellation and promotion
+        assertEquals(CAPACITY, registrationCounters.count(EVENT_ID, "CONFIRMED"));
+        assertEquals(WAITLISTED - CANCELLATIONS, registrationCounters.count(EVENT_ID, "WAITING_LIST"));
+        assertEquals(CANCELLATIONS, registrationCounters.count(EVENT_ID, "CANCELLED"));
+
+        // Baseline for comparison: finding the head by rescanning the event's registrations
+        long rescan = 0;
+        for (int i = 0; i < BASELINE_RUNS; i++) {
+            long start = System.nanoTime();
+            registrationRepository.findByEventId(EVENT_ID).stream()
+                    .filter(r -> "WAITING_LIST".equals(r.getStatus()))
+                    .min(Comparator.comparing(Registration::getRegistrationDate).thenComparing(Registration::getId))
+                    .orElseThrow();
+            rescan += System.nanoTime() - start;
+        }
+        report("rescan findByEventId (previous)", rescan / BASELINE_RUNS);
+    }
+
+    private void seed() {
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        List<Object[]> rows = new ArrayList<>(CAPACITY + WAITLISTED);
+        for (int i = 0; i < CAPACITY + WAITLISTED; i++) {
+            rows.add(new Object[]{
+                    EVENT_ID, (long) i + 1, "User " + i, "user" + i + "@example.com",
+                    Timestamp.valueOf(base.plusNanos(i * 1_000L)), i < CAPACITY ? "CONFIRMED" : "WAITING_LIST"
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO registrations "
+                + "(id, event_id, user_id, participant_name, participant_email, registration_date, status) "
+                + "VALUES (NEXT VALUE FOR registrations_seq, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static void report(String label, long nanos) {
+        System.out.printf("[waitlist] %-32s %10.3f ms (%d waitlisted)%n", label, nanos / 1_000_000.0, WAITLISTED);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.registrationservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongBloomFilterTest {
+
+    @Test
+    void neverForgetsAnAddedKey() {
+        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+        Random random = new Random(1);
+        long[] keys = new long[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            filter.add(keys[i]);
+        }
+        for (long key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        int expected = 10_000;
+        LongBloomFilter filter = new LongBloomFilter(expected, 0.01);
+        // Sequential keys: the gate's tokens are random, but clustered keys are the harder case
+        for (long key = 0; key < expected; key++) {
+            filter.add(key);
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (long key = expected; key < expected + probes; key++) {
+            if (filter.mightContain(key)) falsePositives++;
+        }
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterRejectsEverything() {
+        LongBloomFilter filter = new LongBloomFilter(0, 0.01);
+        for (long key = -100; key < 100; key++) {
+            assertFalse(filter.mightContain(key));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.registrationservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void addRemoveContainsAcrossRehash() {
+        LongHashSet set = new LongHashSet(4);
+        for (long key = 1; key <= 10_000; key++) {
+            assertTrue(set.add(key));
+        }
+        assertFalse(set.add(5_000));
+        assertEquals(10_000, set.size());
+
+        for (long key = 2; key <= 10_000; key += 2) {
+            assertTrue(set.remove(key));
+        }
+        assertFalse(set.remove(2));
+        assertEquals(5_000, set.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key % 2 == 1, set.contains(key), "key " + key);
+        }
+    }
+
+    @Test
+    void zeroAndNegativeKeys() {
+        LongHashSet set = new LongHashSet(16);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(0));
+        assertEquals(3, set.size());
+
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertEquals(2, set.size());
+    }
+
+    // Random keys in a small table: probe runs wrap past the last slot and removals shift
+    // entries back across the wrap, which a reference set catches if it goes wrong
+    @Test
+    void matchesReferenceSetUnderRandomChurn() {
+        Random random = new Random(7);
+        LongHashSet set = new LongHashSet(16);
+        Set<Long> reference = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(64) - 8;
+            if (random.nextBoolean()) {
+                assertEquals(reference.add(key), set.add(key));
+            } else {
+                assertEquals(reference.remove(key), set.remove(key));
+            }
+        }
+        assertEquals(reference.size(), set.size());
+        for (long key = -8; key < 56; key++) {
+            assertEquals(reference.contains(key), set.contains(key), "key " + key);
+        }
+
+        Set<Long> seen = new HashSet<>();
+        set.forEach(seen::add);
+        assertEquals(reference, seen);
+    }
+
+    @Test
+    void clearEmptiesTheSet() {
+        LongHashSet set = new LongHashSet(8);
+        set.add(0);
+        set.add(42);
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(42));
+        assertTrue(set.add(42));
+    }
+}